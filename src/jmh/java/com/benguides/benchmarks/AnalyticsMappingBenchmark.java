@@ -0,0 +1,60 @@
+package com.benguides.benchmarks;
+
+import com.benguides.repositories.DailySalesRollupRepository;
+import com.benguides.repositories.ExpenseTransactionRepository;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.SaleTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Row-to-map conversion behind the analytics calls (SaleTransactionService.toMap and
+// ExpenseTransactionService.convertToMap), with the repositories stubbed out so only the mapping is timed
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsMappingBenchmark {
+
+    // Branches or products in a company
+    @Param({"10", "100"})
+    private int groups;
+
+    private SaleTransactionService saleTransactionService;
+    private ExpenseTransactionService expenseTransactionService;
+
+    @Setup
+    public void setUp() {
+        DailySalesRollupRepository rollups = BenchmarkFixtures.stub(DailySalesRollupRepository.class,
+                Map.of("getSalesPerBranch", BenchmarkFixtures.aggregateRows(groups, 3)));
+        saleTransactionService = new SaleTransactionService(null, null, null, rollups, null, null);
+
+        ExpenseTransactionRepository expenses = BenchmarkFixtures.stub(ExpenseTransactionRepository.class,
+                Map.of("getExpensesPerType", BenchmarkFixtures.aggregateRows(groups, 1)));
+        expenseTransactionService = new ExpenseTransactionService(expenses, null);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal[]> salesToMap() {
+        return saleTransactionService.getSalesPerBranch(1L);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal[]> expensesConvertToMap() {
+        return expenseTransactionService.getExpensesPerType(1L);
+    }
+}
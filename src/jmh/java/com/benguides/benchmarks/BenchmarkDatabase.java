@@ -0,0 +1,154 @@
+package com.benguides.benchmarks;
+
+import com.benguides.models.BlockIdGenerator;
+import com.benguides.services.DailySalesRollupService;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.SaleTransactionService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Just JPA, Flyway and the transaction services over an in-memory H2 in MySQL mode, migrated with the
+// production scripts and filled with one synthetic company: readings for every branch, product and shift
+// of every day, plus one expense per branch per day
+@SpringBootConfiguration
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class, FlywayAutoConfiguration.class, TransactionAutoConfiguration.class})
+@EntityScan("com.benguides.models")
+@EnableJpaRepositories("com.benguides.repositories")
+@Import({SaleTransactionService.class, ExpenseTransactionService.class, DailySalesRollupService.class})
+public class BenchmarkDatabase {
+
+    public static final long COMPANY_ID = 1L;
+
+    private static final String[] PRODUCTS = {"Super Petrol", "Diesel", "Kerosene", "V-Power", "LPG"};
+    private static final String[] EXPENSE_TYPES = {"Electricity", "Salaries", "Maintenance", "Security"};
+    private static final int BATCH_SIZE = 5000;
+
+    public static ConfigurableApplicationContext start(String name) {
+        // Command-line arguments so they win over application.properties
+        return new SpringApplicationBuilder(BenchmarkDatabase.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.flyway.enabled=true",
+                        "--logging.level.root=WARN");
+    }
+
+    // branches x products x 2 shifts readings per day for the given number of days up to today
+    public static void seed(ConfigurableApplicationContext context, int branches, int products, int days) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Random random = new Random(42);
+
+        jdbc.update("insert into companies (id, name, subscription_plan, is_active, created_at, updated_at) values (?, 'Benchmark Energies', 'PREMIUM', 1, ?, ?)",
+                COMPANY_ID, now, now);
+        jdbc.update("insert into product_categories (id, name, company_id, created_at, updated_at) values (1, 'Fuel', ?, ?, ?)", COMPANY_ID, now, now);
+        for (int b = 1; b <= branches; b++) {
+            jdbc.update("insert into branches (id, name, code, is_active, company_id, created_at, updated_at) values (?, ?, ?, 1, ?, ?, ?)",
+                    b, "Station " + b, "ST" + b, COMPANY_ID, now, now);
+        }
+        BigDecimal[] prices = new BigDecimal[products];
+        for (int p = 1; p <= products; p++) {
+            jdbc.update("insert into products (id, name, unit_of_measurement, active, category_id, company_id, created_at, updated_at) values (?, ?, 'Litres', 1, 1, ?, ?, ?)",
+                    p, PRODUCTS[(p - 1) % PRODUCTS.length] + (p > PRODUCTS.length ? " " + p : ""), COMPANY_ID, now, now);
+            prices[p - 1] = BigDecimal.valueOf(150 + 10L * p);
+        }
+        for (int t = 1; t <= EXPENSE_TYPES.length; t++) {
+            jdbc.update("insert into expense_type (id, name, company_id, created_at, updated_at) values (?, ?, ?, ?, ?)",
+                    t, EXPENSE_TYPES[t - 1], COMPANY_ID, now, now);
+        }
+
+        // Pump meters keep counting up from one shift to the next
+        BigDecimal[][] litresMeter = new BigDecimal[branches][products];
+        BigDecimal[][] cashMeter = new BigDecimal[branches][products];
+        for (int b = 0; b < branches; b++) {
+            for (int p = 0; p < products; p++) {
+                litresMeter[b][p] = BigDecimal.ZERO.setScale(3);
+                cashMeter[b][p] = BigDecimal.ZERO.setScale(2);
+            }
+        }
+
+        List<Object[]> sales = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> expenses = new ArrayList<>(BATCH_SIZE);
+        long saleId = 0;
+        long expenseId = 0;
+        LocalDate first = LocalDate.now().minusDays(days - 1L);
+        for (int d = 0; d < days; d++) {
+            Date date = Date.valueOf(first.plusDays(d));
+            for (int b = 0; b < branches; b++) {
+                for (String shift : new String[]{"DAY", "NIGHT"}) {
+                    for (int p = 0; p < products; p++) {
+                        BigDecimal litres = BigDecimal.valueOf(200_000 + random.nextInt(2_800_000), 3);
+                        BigDecimal cash = litres.multiply(prices[p]).setScale(2, RoundingMode.HALF_UP);
+                        BigDecimal buyingPrice = prices[p].multiply(new BigDecimal("0.92")).setScale(2, RoundingMode.HALF_UP);
+                        BigDecimal litresOpening = litresMeter[b][p];
+                        BigDecimal cashOpening = cashMeter[b][p];
+                        litresMeter[b][p] = litresOpening.add(litres);
+                        cashMeter[b][p] = cashOpening.add(cash);
+                        sales.add(new Object[]{++saleId, date, now, now, litresOpening, litresMeter[b][p], cashOpening, cashMeter[b][p],
+                                litres, cash.divide(litres, 2, RoundingMode.HALF_UP), cash, buyingPrice,
+                                litres.multiply(buyingPrice).setScale(2, RoundingMode.HALF_UP), shift, COMPANY_ID, b + 1, p + 1});
+                    }
+                }
+                expenses.add(new Object[]{++expenseId, date, "Daily " + EXPENSE_TYPES[d % EXPENSE_TYPES.length].toLowerCase(),
+                        BigDecimal.valueOf(50_000 + random.nextInt(2_000_000), 2), now, now, d % EXPENSE_TYPES.length + 1, COMPANY_ID, b + 1});
+            }
+            if (sales.size() >= BATCH_SIZE) {
+                insertSales(jdbc, sales);
+            }
+            if (expenses.size() >= BATCH_SIZE) {
+                insertExpenses(jdbc, expenses);
+            }
+        }
+        insertSales(jdbc, sales);
+        insertExpenses(jdbc, expenses);
+
+        // Keep the id block counter ahead of the explicit ids
+        long block = BlockIdGenerator.blockAfter(Math.max(saleId, expenseId));
+        jdbc.update(BlockIdGenerator.RESERVE_BLOCK_SQL, block, "sale_transactions", block);
+        context.getBean(DailySalesRollupService.class).rebuild(COMPANY_ID);
+    }
+
+    private static void insertSales(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("insert into sale_transactions (id, transaction_date, created_at, updated_at, " +
+                "litres_opening_reading, litres_closing_reading, cash_opening_reading, cash_closing_reading, " +
+                "quantity, unit_price, total_amount, buying_price, cost_of_sales, shift_session, company_id, branch_id, product_id) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private static void insertExpenses(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("insert into expense_transaction (id, transaction_date, comment, amount, created_at, updated_at, " +
+                "expense_type_id, company_id, branch_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+}
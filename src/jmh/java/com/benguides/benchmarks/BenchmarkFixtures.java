@@ -0,0 +1,64 @@
+package com.benguides.benchmarks;
+
+import com.benguides.models.Permission;
+import com.benguides.models.Role;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// In-memory inputs shared by the benchmarks that do not need a database
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Set<Role> roles(int roleCount, int permissionsPerRole) {
+        Set<Role> roles = new LinkedHashSet<>();
+        for (int r = 0; r < roleCount; r++) {
+            Role role = new Role();
+            role.setId((long) r);
+            role.setName("ROLE_BENCH_" + r);
+            role.setDisplayName("Benchmark role " + r);
+            for (int p = 0; p < permissionsPerRole; p++) {
+                role.addPermission(new Permission("BENCH_" + r + "_" + p, "Benchmark permission", "BENCHMARK"));
+            }
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    // Aggregate rows shaped like the rollup queries: name followed by the given number of sums
+    static List<Object[]> aggregateRows(int rows, int sums) {
+        List<Object[]> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Object[] row = new Object[sums + 1];
+            row[0] = "Row " + i;
+            for (int s = 1; s <= sums; s++) {
+                row[s] = BigDecimal.valueOf(1_000_000L + i * 137L + s, 2);
+            }
+            result.add(row);
+        }
+        return result;
+    }
+
+    // Repository stand-in answering the named query methods with canned results; anything else fails
+    static <T> T stub(Class<T> repository, Map<String, Object> results) {
+        Object proxy = Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, (self, method, args) -> {
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            return switch (method.getName()) {
+                case "toString" -> "Stub " + repository.getSimpleName();
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+        return repository.cast(proxy);
+    }
+}
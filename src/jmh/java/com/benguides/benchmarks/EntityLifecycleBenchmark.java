@@ -0,0 +1,80 @@
+package com.benguides.benchmarks;
+
+import com.benguides.models.SaleTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BigDecimal work done by the SaleTransaction @PrePersist/@PreUpdate hook for every reading saved,
+// and the validation the import runs on each row
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityLifecycleBenchmark {
+
+    private static final MethodHandle ON_SAVE;
+
+    static {
+        try {
+            ON_SAVE = MethodHandles.privateLookupIn(SaleTransaction.class, MethodHandles.lookup())
+                    .findVirtual(SaleTransaction.class, "onSave", MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private SaleTransaction reading;
+    private SaleTransaction idleReading;
+
+    @Setup
+    public void setUp() {
+        reading = reading("125430.500", "128210.750", "18830125.00", "19330170.00", "162.40");
+        // No litres sold: exercises the zero-quantity branch
+        idleReading = reading("125430.500", "125430.500", "18830125.00", "18830125.00", "162.40");
+    }
+
+    @Benchmark
+    public BigDecimal onSave() throws Throwable {
+        ON_SAVE.invokeExact(reading);
+        return reading.getCostOfSales();
+    }
+
+    @Benchmark
+    public BigDecimal onSaveNoSales() throws Throwable {
+        ON_SAVE.invokeExact(idleReading);
+        return idleReading.getUnitPrice();
+    }
+
+    @Benchmark
+    public List<String> readingProblems() {
+        return reading.getReadingProblems();
+    }
+
+    private static SaleTransaction reading(String litresOpening, String litresClosing,
+                                           String cashOpening, String cashClosing, String buyingPrice) {
+        SaleTransaction reading = new SaleTransaction();
+        reading.setLitresOpeningReading(new BigDecimal(litresOpening));
+        reading.setLitresClosingReading(new BigDecimal(litresClosing));
+        reading.setCashOpeningReading(new BigDecimal(cashOpening));
+        reading.setCashClosingReading(new BigDecimal(cashClosing));
+        reading.setBuyingPrice(new BigDecimal(buyingPrice));
+        return reading;
+    }
+}
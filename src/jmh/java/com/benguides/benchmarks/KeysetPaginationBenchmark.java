@@ -0,0 +1,106 @@
+package com.benguides.benchmarks;
+
+import com.benguides.dtos.SaleTransactionDTO;
+import com.benguides.services.SaleTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// First page against a deep page of the newest-first sales list: keyset seek should cost the same
+// at any depth, OFFSET grows with it. Seeds `rows` readings (20 stations x 5 products x 2 shifts a day);
+// the default 2M rows needs a few GB of heap, e.g. -p rows=200000 for a quick run.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KeysetPaginationBenchmark {
+
+    private static final int BRANCHES = 20;
+    private static final int PRODUCTS = 5;
+    private static final int PAGE_SIZE = 50;
+
+    @Param("2000000")
+    private int rows;
+
+    @Param("5000")
+    private int deepPage;
+
+    private ConfigurableApplicationContext context;
+    private SaleTransactionService saleTransactionService;
+    private PageRequest firstPageRequest;
+    private PageRequest deepPageRequest;
+    private LocalDate deepAfterDate;
+    private Long deepAfterId;
+    private KeysetScrollPosition deepPosition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("keyset");
+        BenchmarkDatabase.seed(context, BRANCHES, PRODUCTS, Math.max(1, rows / (BRANCHES * PRODUCTS * 2)));
+        saleTransactionService = context.getBean(SaleTransactionService.class);
+
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "transactionDate", "id");
+        firstPageRequest = PageRequest.of(0, PAGE_SIZE, newestFirst);
+        deepPageRequest = PageRequest.of(deepPage - 1, PAGE_SIZE, newestFirst);
+
+        // The last row before the deep page is the key a scrolling grid would already hold
+        SaleTransactionDTO before = saleTransactionService.getAllByCompany(BenchmarkDatabase.COMPANY_ID, null, null,
+                PageRequest.of((deepPage - 1) * PAGE_SIZE - 1, 1, newestFirst)).get(0);
+        deepAfterDate = before.transactionDate();
+        deepAfterId = before.id();
+        deepPosition = ScrollPosition.forward(Map.of("transactionDate", deepAfterDate, "id", deepAfterId));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SaleTransactionDTO> keysetFirstPage() {
+        return saleTransactionService.getPageAfter(BenchmarkDatabase.COMPANY_ID, null, null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<SaleTransactionDTO> keysetDeepPage() {
+        return saleTransactionService.getPageAfter(BenchmarkDatabase.COMPANY_ID, null, null, deepAfterDate, deepAfterId, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Window<SaleTransactionDTO> scrollDeepPage() {
+        return saleTransactionService.scrollByCompany(BenchmarkDatabase.COMPANY_ID, null, null, deepPosition, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<SaleTransactionDTO> offsetFirstPage() {
+        return saleTransactionService.getAllByCompany(BenchmarkDatabase.COMPANY_ID, null, null, firstPageRequest);
+    }
+
+    @Benchmark
+    public List<SaleTransactionDTO> offsetDeepPage() {
+        return saleTransactionService.getAllByCompany(BenchmarkDatabase.COMPANY_ID, null, null, deepPageRequest);
+    }
+}
@@ -0,0 +1,90 @@
+package com.benguides.benchmarks;
+
+import com.benguides.models.Role;
+import com.benguides.models.User;
+import com.benguides.security.PermissionBits;
+import com.benguides.security.PermissionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Stream-based User.hasPermission against the precomputed bitset, for a user with 5 roles x 30 permissions.
+// "granted" is the last permission the stream reaches, "missing" a registered permission no role holds.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    @Param("5")
+    private int roleCount;
+
+    @Param("30")
+    private int permissionsPerRole;
+
+    private User user;
+    private PermissionRegistry registry;
+    private PermissionBits bits;
+    private String granted;
+    private String missing;
+    private int grantedOrdinal;
+
+    @Setup
+    public void setUp() {
+        registry = new PermissionRegistry();
+        Set<Role> roles = BenchmarkFixtures.roles(roleCount, permissionsPerRole);
+        user = new User();
+        user.setRoles(roles);
+
+        Role last = roles.stream().reduce((a, b) -> b).orElseThrow();
+        granted = last.getPermissions().stream().reduce((a, b) -> b).orElseThrow().getName();
+        missing = "VIEW_SYSTEM_LOGS";
+        bits = registry.effectiveBits(roles);
+        grantedOrdinal = registry.indexOf(granted);
+    }
+
+    @Benchmark
+    public boolean streamGranted() {
+        return user.hasPermission(granted);
+    }
+
+    @Benchmark
+    public boolean streamMissing() {
+        return user.hasPermission(missing);
+    }
+
+    // What SecurityService.hasPermission does: name -> ordinal, then one bit test
+    @Benchmark
+    public boolean bitsGranted() {
+        return registry.has(bits, granted);
+    }
+
+    @Benchmark
+    public boolean bitsMissing() {
+        return registry.has(bits, missing);
+    }
+
+    @Benchmark
+    public boolean bitsByOrdinal() {
+        return bits.has(grantedOrdinal);
+    }
+
+    // One-off cost paid when a principal is loaded at login
+    @Benchmark
+    public PermissionBits effectiveBits() {
+        return registry.effectiveBits(user.getRoles());
+    }
+}
@@ -0,0 +1,95 @@
+package com.benguides.benchmarks;
+
+import com.benguides.dtos.SalesAnalyticsSnapshot;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.SaleTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The aggregate queries behind the sales and expense analytics tabs, against H2 seeded with
+// a company of 5 stations x 3 products and two years of shift readings (about 22k sale rows)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryAggregateBenchmark {
+
+    @Param("5")
+    private int branches;
+
+    @Param("3")
+    private int products;
+
+    @Param("730")
+    private int days;
+
+    private ConfigurableApplicationContext context;
+    private SaleTransactionService saleTransactionService;
+    private ExpenseTransactionService expenseTransactionService;
+    private LocalDate monthStart;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("aggregates");
+        BenchmarkDatabase.seed(context, branches, products, days);
+        saleTransactionService = context.getBean(SaleTransactionService.class);
+        expenseTransactionService = context.getBean(ExpenseTransactionService.class);
+        today = LocalDate.now();
+        monthStart = today.withDayOfMonth(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SalesAnalyticsSnapshot salesSnapshotAllTime() {
+        return saleTransactionService.getSalesAnalyticsSnapshot(BenchmarkDatabase.COMPANY_ID);
+    }
+
+    @Benchmark
+    public SalesAnalyticsSnapshot salesSnapshotMonthToDate() {
+        return saleTransactionService.getSalesAnalyticsSnapshot(BenchmarkDatabase.COMPANY_ID, monthStart, today);
+    }
+
+    @Benchmark
+    public BigDecimal[] dailyCompanySummary() {
+        return saleTransactionService.getDailyCompanySalesSummary(BenchmarkDatabase.COMPANY_ID, today);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal[]> expensesPerTypeAllTime() {
+        return expenseTransactionService.getExpensesPerType(BenchmarkDatabase.COMPANY_ID);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal[]> expensesPerBranchMonthToDate() {
+        return expenseTransactionService.getExpensesPerBranchBetween(BenchmarkDatabase.COMPANY_ID, monthStart, today);
+    }
+
+    @Benchmark
+    public long countSalesMonthToDate() {
+        return saleTransactionService.countByCompany(BenchmarkDatabase.COMPANY_ID, monthStart, today);
+    }
+}
@@ -0,0 +1,58 @@
+package com.benguides.benchmarks;
+
+import com.benguides.models.User;
+import com.benguides.repositories.UserRepository;
+import com.benguides.security.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// CustomUserDetailsService.loadUserByUsername with the repository stubbed, i.e. the cost of
+// getAuthorities flattening roles and permissions into granted authorities at every login
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    @Param("5")
+    private int roleCount;
+
+    @Param("30")
+    private int permissionsPerRole;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("attendant");
+        user.setPassword("{noop}secret");
+        user.setEmail("attendant@example.com");
+        user.setRoles(BenchmarkFixtures.roles(roleCount, permissionsPerRole));
+
+        UserRepository users = BenchmarkFixtures.stub(UserRepository.class, Map.of("findByUsername", Optional.of(user)));
+        userDetailsService = new CustomUserDetailsService(users);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername("attendant");
+    }
+}
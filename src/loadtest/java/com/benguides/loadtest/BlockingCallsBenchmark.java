@@ -0,0 +1,148 @@
+package com.benguides.loadtest;
+
+import com.benguides.config.PerfDataGenerator;
+import com.benguides.models.Company;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.SaleTransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of many concurrent requests that block on the database, with requests served the way Tomcat
+// serves them: on a bounded pool of platform threads (server.tomcat.threads.max, 200 by default) or, with
+// spring.threads.virtual.enabled, on a new virtual thread each. Every client alternates between the
+// dashboard (analytics tab: snapshots and month-to-date summaries) and the records grid (count plus first
+// page) with no think time, and each statement waits db-latency-ms as if the database were across the network.
+//   ./gradlew blockingCallsBenchmark -PbenchmarkArgs="--clients=1000 --pool=20 --db-latency-ms=5"
+// The task runs with -Djdk.tracePinnedThreads=short, so a virtual thread that blocks while pinned to its
+// carrier (inside synchronized) prints a stack trace.
+public class BlockingCallsBenchmark {
+
+    private static final String DASHBOARD = "dashboard";
+    private static final String RECORDS = "records";
+    private static final int GRID_PAGE_SIZE = 50;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int clients = Integer.parseInt(options.remove("clients"));
+        int durationSeconds = Integer.parseInt(options.remove("duration"));
+        int warmupSeconds = Integer.parseInt(options.remove("warmup"));
+        int poolSize = Integer.parseInt(options.remove("pool"));
+        int platformThreads = Integer.parseInt(options.remove("platform-threads"));
+        long latencyMillis = Long.parseLong(options.remove("db-latency-ms"));
+        List<String> modes = List.of(options.remove("modes").split(","));
+        Path reportDirectory = Path.of(options.remove("report"))
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+        // Whatever is left sizes the generated data set
+        try (ConfigurableApplicationContext context = LoadTestContext.start(options, poolSize)) {
+            SaleTransactionService sales = context.getBean(SaleTransactionService.class);
+            ExpenseTransactionService expenses = context.getBean(ExpenseTransactionService.class);
+            List<Long> companyIds = context.getBean(CompanyRepository.class).findAll().stream()
+                    .filter(company -> company.getName().startsWith(PerfDataGenerator.COMPANY_PREFIX))
+                    .map(Company::getId)
+                    .toList();
+            if (companyIds.isEmpty()) {
+                throw new IllegalStateException("No generated companies to run against");
+            }
+            context.getBean(RoundTripLatency.class).setMillis(latencyMillis);
+
+            for (String mode : modes) {
+                String title = String.format("%s: %d clients, %ds, pool size %d, %d ms per statement%s", mode, clients,
+                        durationSeconds, poolSize, latencyMillis,
+                        mode.equals("platform") ? ", " + platformThreads + " request threads" : "");
+                System.out.println("Running " + title);
+                try (ExecutorService requestThreads = mode.equals("platform")
+                        ? Executors.newFixedThreadPool(platformThreads)
+                        : Executors.newVirtualThreadPerTaskExecutor()) {
+                    run(requestThreads, clients, warmupSeconds, durationSeconds, companyIds, sales, expenses)
+                            .write(title, reportDirectory.resolve(mode));
+                }
+            }
+        }
+    }
+
+    // Clients are cheap virtual threads in both modes; each hands its request to the request threads and waits
+    // for the answer, so latency includes the time spent queued for a free request thread
+    private static LatencyReport run(ExecutorService requestThreads, int clients, int warmupSeconds, int durationSeconds,
+                                     List<Long> companyIds, SaleTransactionService sales,
+                                     ExpenseTransactionService expenses) throws InterruptedException {
+        LatencyReport report = new LatencyReport(DASHBOARD, RECORDS);
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> clientThreads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            long companyId = companyIds.get(i % companyIds.size());
+            clientThreads.add(Thread.ofVirtual().start(() -> {
+                boolean dashboard = ThreadLocalRandom.current().nextBoolean();
+                while (System.nanoTime() < end) {
+                    String step = dashboard ? DASHBOARD : RECORDS;
+                    Runnable request = dashboard
+                            ? () -> dashboard(sales, expenses, companyId)
+                            : () -> records(sales, companyId);
+                    long start = System.nanoTime();
+                    try {
+                        requestThreads.submit(request).get();
+                        report.record(step, start);
+                    } catch (ExecutionException e) {
+                        report.error(step);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    dashboard = !dashboard;
+                }
+            }));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+        report.reset();
+        for (Thread client : clientThreads) {
+            client.join();
+        }
+        return report;
+    }
+
+    private static void dashboard(SaleTransactionService sales, ExpenseTransactionService expenses, long companyId) {
+        LocalDate today = LocalDate.now();
+        sales.getSalesAnalyticsSnapshot(companyId, today.minusDays(7), today);
+        sales.getSalesAnalyticsSnapshot(companyId, today.withDayOfMonth(1), today);
+        expenses.getExpensesSummaryBetween(companyId, today.withDayOfMonth(1), today);
+    }
+
+    private static void records(SaleTransactionService sales, long companyId) {
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(7);
+        sales.countByCompany(companyId, start, end);
+        sales.getPageAfter(companyId, start, end, null, null, GRID_PAGE_SIZE);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "clients", "1000", "duration", "30", "warmup", "10", "pool", "20", "platform-threads", "200",
+                "db-latency-ms", "5", "modes", "platform,virtual", "report", "blocking-calls-report"));
+        // A small data set: the point is time spent waiting on the database, not in it
+        options.putAll(Map.of("companies", "4", "branches", "10", "products", "2", "years", "1", "threads", "2"));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
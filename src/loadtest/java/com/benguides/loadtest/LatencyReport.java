@@ -0,0 +1,72 @@
+package com.benguides.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency per step of the scenario, recorded in microseconds. Recorders are safe to write from every
+// session thread at once; reset() drops what was recorded during warm-up.
+public class LatencyReport {
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private long startedAt = System.nanoTime();
+
+    public LatencyReport(String... steps) {
+        for (String step : steps) {
+            recorders.put(step, new Recorder(3));
+            errors.put(step, new LongAdder());
+        }
+    }
+
+    public void record(String step, long startNanos) {
+        recorders.get(step).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    public void error(String step) {
+        errors.get(step).increment();
+    }
+
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+        startedAt = System.nanoTime();
+    }
+
+    // Prints the summary table and writes it, plus one .hgrm percentile distribution per step, to the directory
+    public void write(String title, Path directory) throws IOException {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        recorders.forEach((step, recorder) -> histograms.put(step, recorder.getIntervalHistogram()));
+
+        StringBuilder summary = new StringBuilder(title).append(System.lineSeparator())
+                .append(String.format("%-16s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                        "step", "count", "per sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        histograms.forEach((step, histogram) -> summary.append(String.format("%-16s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                step, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0, errors.get(step).sum())));
+        System.out.print(summary);
+
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("summary.txt"), summary);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Report written to " + directory.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
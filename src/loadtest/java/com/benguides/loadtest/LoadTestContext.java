@@ -0,0 +1,103 @@
+package com.benguides.loadtest;
+
+import com.benguides.config.AppConfig;
+import com.benguides.config.PartitionMaintenanceJob;
+import com.benguides.config.PerfDataGenerator;
+import com.benguides.security.PermissionRegistry;
+import com.benguides.security.PrincipalCache;
+import com.benguides.services.DailySalesRollupService;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.PermissionService;
+import com.benguides.services.RoleService;
+import com.benguides.services.SaleTransactionService;
+import com.benguides.services.UserService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// The services behind the sales view over an in-memory H2 in MySQL mode, migrated with the production
+// scripts and filled by PerfDataGenerator; no web server, Vaadin or security filter chain
+@SpringBootConfiguration
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+        JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class, FlywayAutoConfiguration.class,
+        TransactionAutoConfiguration.class})
+@EntityScan("com.benguides.models")
+@EnableJpaRepositories("com.benguides.repositories")
+@Import({AppConfig.class, PerfDataGenerator.class, SaleTransactionService.class, ExpenseTransactionService.class,
+        DailySalesRollupService.class, RoleService.class, PermissionService.class, UserService.class,
+        PrincipalCache.class, PermissionRegistry.class})
+public class LoadTestContext {
+
+    // Emulated network round trip on every statement (BlockingCallsBenchmark); off unless set
+    @Bean
+    static RoundTripLatency roundTripLatency() {
+        return new RoundTripLatency();
+    }
+
+    // EXPLAINs the statements on the partitioned tables while recording (PartitionPruningCheck); idle otherwise
+    @Bean
+    static PartitionExplainer partitionExplainer() {
+        return new PartitionExplainer(PartitionMaintenanceJob.PARTITIONED_TABLES);
+    }
+
+    @Bean
+    static BeanPostProcessor wrappedDataSource(ObjectProvider<RoundTripLatency> latency,
+                                               ObjectProvider<PartitionExplainer> explainer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource
+                        ? explainer.getObject().wrap(latency.getObject().wrap(dataSource))
+                        : bean;
+            }
+        };
+    }
+
+    // perf.data.* options override the application-perf.properties sizes, which are meant for MySQL
+    public static ConfigurableApplicationContext start(Map<String, String> perfData, int poolSize) {
+        return start(perfData, List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"));
+    }
+
+    // Against another database, given as spring.datasource.* and spring.jpa.database-platform arguments
+    public static ConfigurableApplicationContext start(Map<String, String> perfData, List<String> databaseArgs) {
+        List<String> args = new ArrayList<>(databaseArgs);
+        args.addAll(List.of(
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.flyway.enabled=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.benguides.config.PerfDataGenerator=INFO"));
+        perfData.forEach((key, value) -> args.add("--perf.data." + key + "=" + value));
+        return new SpringApplicationBuilder(LoadTestContext.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .profiles("perf")
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,125 @@
+package com.benguides.loadtest;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// While recording, runs EXPLAIN with the same parameters ahead of every SELECT that reads one of the given
+// tables, and keeps the partitions MySQL will read for each of those tables in the plan. Idle (a plain
+// pass-through) otherwise.
+public class PartitionExplainer {
+
+    public record Explained(String sql, String table, List<String> partitions) {}
+
+    private record Call(Method method, Object[] args) {}
+
+    private final List<String> tables;
+    private final Pattern tableAlias;
+    private final List<Explained> explained = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    public PartitionExplainer(List<String> tables) {
+        this.tables = tables;
+        this.tableAlias = Pattern.compile("\\b(" + String.join("|", tables) + ")\\s+(?:as\\s+)?(\\w+)",
+                Pattern.CASE_INSENSITIVE);
+    }
+
+    public void start() {
+        explained.clear();
+        recording = true;
+    }
+
+    public List<Explained> stop() {
+        recording = false;
+        return List.copyOf(explained);
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    return result instanceof Connection connection ? wrap(connection) : result;
+                });
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (recording && method.getName().equals("prepareStatement") && readsPartitionedTable((String) args[0])) {
+                        return wrap((PreparedStatement) result, connection, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    // Parameters are replayed onto the EXPLAIN in the order they were set
+    private PreparedStatement wrap(PreparedStatement statement, Connection connection, String sql) {
+        List<Call> parameters = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        parameters.add(new Call(method, args.clone()));
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    } else if ((name.equals("executeQuery") || name.equals("execute")) && args == null) {
+                        explain(connection, sql, parameters);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private void explain(Connection connection, String sql, List<Call> parameters) throws Throwable {
+        try (PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            for (Call call : parameters) {
+                invoke(explain, call.method(), call.args());
+            }
+            // The plan names tables by their alias in the statement
+            Map<String, String> aliases = new HashMap<>();
+            Matcher matcher = tableAlias.matcher(sql);
+            while (matcher.find()) {
+                aliases.put(matcher.group(2), matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    String table = aliases.getOrDefault(plan.getString("table"), plan.getString("table"));
+                    String partitions = plan.getString("partitions");
+                    if (tables.contains(table)) {
+                        explained.add(new Explained(sql, table,
+                                partitions != null ? Arrays.asList(partitions.split(",")) : List.of()));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not explain " + sql, e);
+        }
+    }
+
+    private boolean readsPartitionedTable(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        return normalized.startsWith("select") && tables.stream().anyMatch(normalized::contains);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
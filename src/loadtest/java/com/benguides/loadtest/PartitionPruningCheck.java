@@ -0,0 +1,132 @@
+package com.benguides.loadtest;
+
+import com.benguides.config.PartitionMaintenanceJob;
+import com.benguides.config.PerfDataGenerator;
+import com.benguides.dtos.ExpenseTransactionDTO;
+import com.benguides.dtos.SaleTransactionDTO;
+import com.benguides.models.Company;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.SaleTransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Checks that the date-filtered report and grid queries only read the partitions of the months they cover
+// (V7, MySQL only). Runs each query with EXPLAIN ahead of it against a MySQL database, migrated with the
+// production scripts and filled by PerfDataGenerator if empty, and prints the partitions it reads:
+//   ./gradlew partitionPruningCheck -PpruningArgs="--url=jdbc:mysql://localhost:3306/pruning --username=root --password=root"
+// Exits non-zero if a query reads every partition of a partitioned table.
+public class PartitionPruningCheck {
+
+    private static final int GRID_PAGE_SIZE = 50;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> databaseArgs = List.of(
+                "--spring.datasource.url=" + options.remove("url"),
+                "--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+                "--spring.datasource.username=" + options.remove("username"),
+                "--spring.datasource.password=" + options.remove("password"),
+                "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+                "--spring.flyway.locations=classpath:db/migration,classpath:db/vendor/{vendor}");
+
+        // Whatever is left sizes the generated data set
+        try (ConfigurableApplicationContext context = LoadTestContext.start(options, databaseArgs)) {
+            SaleTransactionService sales = context.getBean(SaleTransactionService.class);
+            ExpenseTransactionService expenses = context.getBean(ExpenseTransactionService.class);
+            PartitionExplainer explainer = context.getBean(PartitionExplainer.class);
+            Map<String, Integer> partitionCounts = partitionCounts(context.getBean(JdbcTemplate.class));
+            Long companyId = context.getBean(CompanyRepository.class).findAll().stream()
+                    .filter(company -> company.getName().startsWith(PerfDataGenerator.COMPANY_PREFIX))
+                    .map(Company::getId)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No generated companies to run against"));
+
+            LocalDate today = LocalDate.now();
+            LocalDate weekStart = today.minusDays(7);
+            LocalDate lastMonthStart = today.minusMonths(1).withDayOfMonth(1);
+            LocalDate lastMonthEnd = lastMonthStart.plusMonths(1).minusDays(1);
+            List<SaleTransactionDTO> salesPage = sales.getPageAfter(companyId, weekStart, today, null, null, GRID_PAGE_SIZE);
+            List<ExpenseTransactionDTO> expensesPage = expenses.getPageAfter(companyId, weekStart, today, null, null, GRID_PAGE_SIZE);
+
+            Map<String, Runnable> queries = new LinkedHashMap<>();
+            queries.put("getSalesSummaryBetween, last 7 days", () -> sales.getSalesSummaryBetween(companyId, weekStart, today));
+            queries.put("getSalesSummaryBetween, last month", () -> sales.getSalesSummaryBetween(companyId, lastMonthStart, lastMonthEnd));
+            queries.put("sales countByCompany, last 7 days", () -> sales.countByCompany(companyId, weekStart, today));
+            queries.put("sales getPageAfter, first page", () -> sales.getPageAfter(companyId, weekStart, today, null, null, GRID_PAGE_SIZE));
+            if (!salesPage.isEmpty()) {
+                SaleTransactionDTO last = salesPage.getLast();
+                queries.put("sales getPageAfter, next page", () -> sales.getPageAfter(companyId, weekStart, today,
+                        last.transactionDate(), last.id(), GRID_PAGE_SIZE));
+            }
+            queries.put("getExpensesSummaryBetween, last month", () -> expenses.getExpensesSummaryBetween(companyId, lastMonthStart, lastMonthEnd));
+            queries.put("expenses countByCompany, last 7 days", () -> expenses.countByCompany(companyId, weekStart, today));
+            queries.put("expenses getPageAfter, first page", () -> expenses.getPageAfter(companyId, weekStart, today, null, null, GRID_PAGE_SIZE));
+            if (!expensesPage.isEmpty()) {
+                ExpenseTransactionDTO last = expensesPage.getLast();
+                queries.put("expenses getPageAfter, next page", () -> expenses.getPageAfter(companyId, weekStart, today,
+                        last.transactionDate(), last.id(), GRID_PAGE_SIZE));
+            }
+
+            int unpruned = 0;
+            for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+                explainer.start();
+                query.getValue().run();
+                List<PartitionExplainer.Explained> plan = explainer.stop();
+                System.out.println(query.getKey());
+                for (PartitionExplainer.Explained step : plan) {
+                    Integer total = partitionCounts.get(step.table());
+                    if (total == null) {
+                        continue;
+                    }
+                    boolean pruned = step.partitions().size() < total;
+                    unpruned += pruned ? 0 : 1;
+                    System.out.printf("  %-20s %d of %d partitions: %s%s%n", step.table(), step.partitions().size(), total,
+                            String.join(",", step.partitions()), pruned ? "" : "  <-- NOT PRUNED");
+                }
+            }
+            System.out.println(unpruned == 0 ? "All queries pruned" : unpruned + " table reads not pruned");
+            if (unpruned > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static Map<String, Integer> partitionCounts(JdbcTemplate jdbcTemplate) {
+        Map<String, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("""
+                        select table_name, count(*) from information_schema.partitions
+                        where table_schema = database() and partition_name is not null
+                        group by table_name""",
+                row -> {
+                    counts.put(row.getString(1), row.getInt(2));
+                });
+        if (!counts.keySet().containsAll(PartitionMaintenanceJob.PARTITIONED_TABLES)) {
+            throw new IllegalStateException("Expected " + PartitionMaintenanceJob.PARTITIONED_TABLES
+                    + " to be partitioned, found " + counts.keySet());
+        }
+        return counts;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>(Map.of("username", "root", "password", "root"));
+        // Three years of data spread over p_history and the monthly partitions
+        options.putAll(Map.of("companies", "2", "branches", "5", "products", "2", "years", "3", "threads", "2"));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!options.containsKey("url")) {
+            throw new IllegalArgumentException("--url=jdbc:mysql://... is required");
+        }
+        return options;
+    }
+}
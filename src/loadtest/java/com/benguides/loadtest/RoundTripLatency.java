@@ -0,0 +1,52 @@
+package com.benguides.loadtest;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+// Makes every execute* call, commit and rollback sleep before reaching the database, so the caller's thread
+// blocks as it would waiting on a MySQL server across the network. Zero (no delay) until set, so the data
+// set is generated at full speed.
+public class RoundTripLatency {
+
+    private static final List<Class<?>> WRAPPED = List.of(
+            Connection.class, CallableStatement.class, PreparedStatement.class, Statement.class);
+
+    private volatile long millis;
+
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return (DataSource) proxy(DataSource.class, dataSource);
+    }
+
+    private Object proxy(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            long delay = millis;
+            if (delay > 0 && (name.startsWith("execute") || name.equals("commit") || name.equals("rollback"))) {
+                Thread.sleep(delay);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Connections and statements are wrapped too, by the type the method declares
+            for (Class<?> wrapped : WRAPPED) {
+                if (method.getReturnType() == wrapped && result != null) {
+                    return proxy(wrapped, result);
+                }
+            }
+            return result;
+        });
+    }
+}
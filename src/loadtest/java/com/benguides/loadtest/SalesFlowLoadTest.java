@@ -0,0 +1,207 @@
+package com.benguides.loadtest;
+
+import com.benguides.config.PerfDataGenerator;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.Product;
+import com.benguides.models.SaleTransaction;
+import com.benguides.repositories.BranchRepository;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.repositories.ProductRepository;
+import com.benguides.services.SaleTransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Simulates attendants on the sales view: each session saves a shift for two products (saveSales), reloads the
+// records grid for the last 7 days (refreshRecords) and then the analytics tab (refreshAnalytics), with think
+// time in between. Runs against in-memory H2, e.g.
+//   ./gradlew loadTest -PloadTestArgs="--users=300 --duration=120 --companies=6 --branches=50"
+public class SalesFlowLoadTest {
+
+    private static final String SAVE = "saveSales";
+    private static final String RECORDS = "refreshRecords";
+    private static final String ANALYTICS = "refreshAnalytics";
+    private static final String FLOW = "flow";
+    private static final int GRID_PAGE_SIZE = 50;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int users = Integer.parseInt(options.remove("users"));
+        int durationSeconds = Integer.parseInt(options.remove("duration"));
+        int warmupSeconds = Integer.parseInt(options.remove("warmup"));
+        int thinkMillis = Integer.parseInt(options.remove("think-ms"));
+        int poolSize = Integer.parseInt(options.remove("pool"));
+        Path reportDirectory = Path.of(options.remove("report"))
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+        // Whatever is left sizes the generated data set
+        try (ConfigurableApplicationContext context = LoadTestContext.start(options, poolSize)) {
+            SaleTransactionService saleTransactionService = context.getBean(SaleTransactionService.class);
+            List<Session> sessions = createSessions(context, users);
+            LatencyReport report = new LatencyReport(SAVE, RECORDS, ANALYTICS, FLOW);
+
+            System.out.printf("Running %d sessions for %ds after %ds warm-up, think time %dms, pool size %d%n",
+                    users, durationSeconds, warmupSeconds, thinkMillis, poolSize);
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+            ExecutorService executor = Executors.newFixedThreadPool(users);
+            for (Session session : sessions) {
+                executor.submit(() -> session.run(saleTransactionService, report, thinkMillis, end));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+            report.reset();
+            executor.shutdown();
+            executor.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+
+            report.write(String.format("%d sessions, %ds, think time %dms, pool size %d", users, durationSeconds, thinkMillis, poolSize),
+                    reportDirectory);
+        }
+    }
+
+    // Sessions are spread round-robin over every generated branch. With more sessions than branches, attendants
+    // share a branch and queue on the same daily rollup rows, which is worth knowing but not the normal case.
+    private static List<Session> createSessions(ConfigurableApplicationContext context, int users) {
+        CompanyRepository companyRepository = context.getBean(CompanyRepository.class);
+        BranchRepository branchRepository = context.getBean(BranchRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        List<Session> stations = new ArrayList<>();
+        for (Company company : companyRepository.findAll()) {
+            if (!company.getName().startsWith(PerfDataGenerator.COMPANY_PREFIX)) {
+                continue;
+            }
+            List<Product> products = productRepository.findAllByCompanyId(company.getId());
+            for (Branch branch : branchRepository.findByCompanyId(company.getId())) {
+                stations.add(new Session(company, branch, products.subList(0, Math.min(2, products.size()))));
+            }
+        }
+        if (stations.isEmpty()) {
+            throw new IllegalStateException("No generated companies to run against");
+        }
+
+        List<Session> sessions = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            Session station = stations.get(i % stations.size());
+            sessions.add(new Session(station.company, station.branch, station.products));
+        }
+        return sessions;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "users", "200", "duration", "60", "warmup", "15", "think-ms", "1000", "pool", "20", "report", "loadtest-report"));
+        // One branch per session by default, two products as on the sales entry form
+        options.putAll(Map.of("companies", "4", "branches", "50", "products", "2", "years", "1", "threads", "2"));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    // One attendant at one branch; pump meters carry on from the previous shift it saved
+    private static final class Session {
+        private final Company company;
+        private final Branch branch;
+        private final List<Product> products;
+        private final BigDecimal[] litresMeter;
+        private final BigDecimal[] cashMeter;
+        private SaleTransaction.ShiftSession shift = SaleTransaction.ShiftSession.DAY;
+
+        Session(Company company, Branch branch, List<Product> products) {
+            this.company = company;
+            this.branch = branch;
+            this.products = products;
+            this.litresMeter = new BigDecimal[products.size()];
+            this.cashMeter = new BigDecimal[products.size()];
+            for (int p = 0; p < products.size(); p++) {
+                litresMeter[p] = BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L), 3);
+                cashMeter[p] = BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(10_000_000_000L), 2);
+            }
+        }
+
+        void run(SaleTransactionService service, LatencyReport report, int thinkMillis, long end) {
+            while (System.nanoTime() < end) {
+                try {
+                    Thread.sleep(thinkMillis / 2 + ThreadLocalRandom.current().nextInt(thinkMillis + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long flowStart = System.nanoTime();
+                if (step(report, SAVE, () -> saveSales(service))
+                        && step(report, RECORDS, () -> refreshRecords(service))
+                        && step(report, ANALYTICS, () -> refreshAnalytics(service))) {
+                    report.record(FLOW, flowStart);
+                } else {
+                    report.error(FLOW);
+                }
+                shift = shift == SaleTransaction.ShiftSession.DAY ? SaleTransaction.ShiftSession.NIGHT : SaleTransaction.ShiftSession.DAY;
+            }
+        }
+
+        private boolean step(LatencyReport report, String name, Runnable action) {
+            long start = System.nanoTime();
+            try {
+                action.run();
+                report.record(name, start);
+                return true;
+            } catch (RuntimeException e) {
+                report.error(name);
+                return false;
+            }
+        }
+
+        private void saveSales(SaleTransactionService service) {
+            List<SaleTransaction> readings = new ArrayList<>();
+            for (int p = 0; p < products.size(); p++) {
+                BigDecimal litres = BigDecimal.valueOf(100_000 + ThreadLocalRandom.current().nextInt(2_900_000), 3);
+                BigDecimal cash = litres.multiply(new BigDecimal("180.00")).setScale(2, RoundingMode.HALF_UP);
+                SaleTransaction reading = service.createNew(company, branch, products.get(p), shift, LocalDate.now());
+                reading.setLitresOpeningReading(litresMeter[p]);
+                reading.setLitresClosingReading(litresMeter[p].add(litres));
+                reading.setCashOpeningReading(cashMeter[p]);
+                reading.setCashClosingReading(cashMeter[p].add(cash));
+                reading.setBuyingPrice(new BigDecimal("165.60"));
+                readings.add(reading);
+            }
+            service.saveShiftReadings(readings);
+            for (int p = 0; p < readings.size(); p++) {
+                litresMeter[p] = readings.get(p).getLitresClosingReading();
+                cashMeter[p] = readings.get(p).getCashClosingReading();
+            }
+        }
+
+        // Record count label plus the first page of the grid
+        private void refreshRecords(SaleTransactionService service) {
+            LocalDate end = LocalDate.now();
+            LocalDate start = end.minusDays(7);
+            service.countByCompany(company.getId(), start, end);
+            service.getPageAfter(company.getId(), start, end, null, null, GRID_PAGE_SIZE);
+        }
+
+        private void refreshAnalytics(SaleTransactionService service) {
+            LocalDate today = LocalDate.now();
+            service.getSalesAnalyticsSnapshot(company.getId(), today.minusDays(7), today);
+            service.getSalesAnalyticsSnapshot(company.getId(), today.withDayOfMonth(1), today);
+            service.getSalesAnalyticsSnapshot(company.getId());
+        }
+    }
+}
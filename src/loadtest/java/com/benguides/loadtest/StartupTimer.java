@@ -0,0 +1,166 @@
+package com.benguides.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Cold-start measurement of the packaged application. Each run launches a fresh JVM in one startup mode and
+// reports the time from launch to the first successful request (GET /actuator/health/readiness, which answers
+// once startup, including DataLoader, has finished), e.g.
+//   ./gradlew startupTime -PstartupArgs="--runs=5 --modes=jar,aot+cds"
+// Modes: jar (the fat jar), extracted (the unpacked jar), cds (with the AppCDS archive), aot (AOT-processed
+// bean definitions), aot+cds. Options the timer does not know are passed on to the application.
+// The default 30 s target is for a single-CPU container, where the fat jar needs about 55 s and aot+cds about 25 s.
+public class StartupTimer {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+
+    private record Run(long firstRequestMillis, String reportedSeconds) {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path jar = Path.of(options.remove("jar"));
+        Path extractedJar = Path.of(options.remove("extracted-jar"));
+        Path archive = Path.of(options.remove("archive"));
+        int runs = Integer.parseInt(options.remove("runs"));
+        long targetMillis = Long.parseLong(options.remove("target-ms"));
+        List<String> modes = List.of(options.remove("modes").split(","));
+        Path reportDirectory = Path.of(options.remove("report"))
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(reportDirectory);
+
+        // Whatever is left configures the application
+        List<String> applicationArgs = options.entrySet().stream()
+                .map(option -> "--" + option.getKey() + "=" + option.getValue())
+                .toList();
+
+        StringBuilder summary = new StringBuilder(String.format("%d runs per mode, target %d ms%n%s%n%n",
+                runs, targetMillis, String.join(" ", applicationArgs)));
+        summary.append(String.format("%-10s %10s %10s %10s %12s%n", "mode", "min ms", "median ms", "max ms", "spring s"));
+        long best = Long.MAX_VALUE;
+        for (String mode : modes) {
+            List<Run> results = new ArrayList<>();
+            for (int i = 1; i <= runs; i++) {
+                Path log = reportDirectory.resolve(mode.replace('+', '-') + "-" + i + ".log");
+                Run run = measure(command(mode, jar, extractedJar, archive, applicationArgs), log);
+                System.out.printf("%-10s run %d: first request after %d ms (Spring reported %s s)%n",
+                        mode, i, run.firstRequestMillis(), run.reportedSeconds());
+                results.add(run);
+            }
+            long[] millis = results.stream().mapToLong(Run::firstRequestMillis).sorted().toArray();
+            long median = millis[millis.length / 2];
+            best = Math.min(best, median);
+            summary.append(String.format("%-10s %10d %10d %10d %12s%n", mode, millis[0], median, millis[millis.length - 1],
+                    results.get(results.size() / 2).reportedSeconds()));
+        }
+        summary.append(String.format("%nBest median %d ms: %s the %d ms target%n", best,
+                best <= targetMillis ? "meets" : "MISSES", targetMillis));
+
+        Files.writeString(reportDirectory.resolve("summary.txt"), summary);
+        System.out.println();
+        System.out.print(summary);
+        System.out.println("Report written to " + reportDirectory);
+    }
+
+    private static List<String> command(String mode, Path jar, Path extractedJar, Path archive, List<String> applicationArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (mode.contains("cds")) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (mode.contains("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add((mode.equals("jar") ? jar : extractedJar).toString());
+        command.addAll(applicationArgs);
+        return command;
+    }
+
+    private static Run measure(List<String> command, Path log) throws IOException, InterruptedException {
+        int port = freePort();
+        int managementPort = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        withPort.add("--management.server.port=" + managementPort);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long firstRequestMillis = -1;
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        break;
+                    }
+                } catch (IOException notListeningYet) {
+                    // Keep polling until the connector is up
+                }
+                TimeUnit.MILLISECONDS.sleep(20);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+        if (firstRequestMillis < 0) {
+            throw new IllegalStateException("No successful request within " + TIMEOUT + ", see " + log);
+        }
+        return new Run(firstRequestMillis, reportedSeconds(log));
+    }
+
+    private static String reportedSeconds(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? matcher.group(1) : "-";
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "runs", "3", "target-ms", "30000", "modes", "jar,extracted,cds,aot+cds"));
+        // The fast-startup profile on in-memory H2 in MySQL mode, so no database server is needed
+        options.put("spring.profiles.active", "prod,fast");
+        options.put("spring.datasource.url", "jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        options.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        options.put("spring.datasource.username", "sa");
+        options.put("spring.datasource.password", "");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
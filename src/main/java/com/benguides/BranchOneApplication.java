@@ -1,12 +1,16 @@
 package com.benguides;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+// Server push lets views update from background threads (UI.access), e.g. live sales totals and import progress
+@Push
 @SpringBootApplication
-public class BranchOneApplication {
+public class BranchOneApplication implements AppShellConfigurator {
     public static void main(String[] args) {
 
         SpringApplication.run(BranchOneApplication.class, args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.benguides.analytics;
+
+import com.benguides.config.ReadRouting;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Runs independent analytics queries concurrently, each on its own virtual thread, so a view can fan them out
+// and show each result as it arrives. At most max-concurrent-queries-per-company run at once for one company;
+// the rest wait for a permit, so one company's heavy reports can't hold every pooled connection.
+// Cancelling a returned future skips the query if it is still waiting; one already running finishes and its
+// result is dropped, as interrupting a thread inside JDBC would close the connection.
+// A query runs with the submitting thread's security context and ReadRouting choice, so replica routing
+// treats it as the same user's read.
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(AnalyticsExecutorProperties.class)
+public class AnalyticsExecutor {
+
+    private final AnalyticsExecutorProperties properties;
+    private final Map<Long, Semaphore> permits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = new DelegatingSecurityContextExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("analytics-", 0).factory()));
+
+    public <T> CompletableFuture<T> submit(Long companyId, Supplier<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Supplier<T> routed = ReadRouting.propagate(query);
+        executor.execute(() -> run(companyId, routed, result));
+        return result;
+    }
+
+    private <T> void run(Long companyId, Supplier<T> query, CompletableFuture<T> result) {
+        // Fair, so a company's queries start in the order they were submitted
+        Semaphore semaphore = permits.computeIfAbsent(companyId,
+                id -> new Semaphore(properties.maxConcurrentQueriesPerCompany(), true));
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+            return;
+        }
+        try {
+            if (!result.isDone()) {
+                result.complete(query.get());
+            }
+        } catch (Throwable e) {
+            // Errors too, or the caller would wait for the result forever; they still reach the thread's
+            // uncaught exception handler
+            result.completeExceptionally(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package com.benguides.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Per-company bound for AnalyticsExecutor; see application.properties
+@ConfigurationProperties(prefix = "branchone.analytics")
+public record AnalyticsExecutorProperties(
+        @DefaultValue("2") int maxConcurrentQueriesPerCompany) {
+}
@@ -0,0 +1,54 @@
+package com.benguides.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+// Service-level caches for reference data that every user of a company sees the same way.
+// Per-company caches are keyed by company id, so an edit evicts only that company's entry.
+// The caching advice wraps the transactional one, so a hit never borrows a connection and
+// annotated evictions run after commit; evictions made inside a transaction are deferred
+// to its commit by the transaction-aware proxy.
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(ServiceCacheProperties.class)
+public class CacheConfig {
+
+    // Company id -> active branches
+    public static final String ACTIVE_BRANCHES = "activeBranches";
+    // Company id -> every product of the company, paged in memory
+    public static final String COMPANY_PRODUCTS = "companyProducts";
+    // Company id -> expense types
+    public static final String EXPENSE_TYPES = "expenseTypes";
+    // Shared by every company: a single entry each
+    public static final String ROLES = "roles";
+    public static final String PERMISSIONS = "permissions";
+    // (company id, month) -> profit and loss rows of a closed month, a few thousand per entry, so it is sized
+    // separately; evicted when a backdated write touches the month, so it can be kept far longer
+    public static final String MONTHLY_CLOSE = "monthlyClose";
+
+    @Bean
+    public CacheManager cacheManager(ServiceCacheProperties properties) {
+        CaffeineCacheManager caches = new CaffeineCacheManager();
+        caches.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats());
+        // Fixed set of caches, registered up front so cache metrics are bound at startup
+        caches.setCacheNames(List.of(ACTIVE_BRANCHES, COMPANY_PRODUCTS, EXPENSE_TYPES, ROLES, PERMISSIONS));
+        caches.registerCustomCache(MONTHLY_CLOSE, Caffeine.newBuilder()
+                .maximumSize(properties.monthlyCloseMaximumSize())
+                .expireAfterWrite(properties.monthlyCloseExpireAfterWrite())
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(caches);
+    }
+}
@@ -2,6 +2,7 @@ package com.benguides.config;
 
 import com.benguides.models.User;
 import com.benguides.repositories.UserRepository;
+import com.benguides.services.DailySalesRollupService;
 import com.benguides.services.RoleService;
 import com.benguides.services.UserService;
 import org.springframework.boot.CommandLineRunner;
@@ -18,7 +19,8 @@ public class DataLoader {
 
     @Bean
     CommandLineRunner loadData(RoleService roleService, UserRepository userRepo,
-                               PasswordEncoder encoder, UserService userService) {
+                               PasswordEncoder encoder, UserService userService,
+                               DailySalesRollupService rollupService) {
         return args -> {
             // Initialize roles and permissions
             roleService.initializeRoles();
@@ -52,6 +54,9 @@ public class DataLoader {
                 cadmin.setRoles(Set.of(companyAdminRole));
                 userService.createUser(cadmin, Set.of(companyAdminRole), null, null);
             }
+
+            // Populate the daily sales rollup for sales recorded before it existed
+            rollupService.backfillIfEmpty();
         };
     }
 }
@@ -0,0 +1,98 @@
+package com.benguides.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+// Keeps the monthly partitions of the tables V7 partitions (MySQL only) months-ahead months ahead of today,
+// at startup and daily. Missing months are split out of the p_future catch-all, which is a quick metadata
+// change while p_future holds no rows. Does nothing on other databases, e.g. H2 in dev.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(PartitionMaintenanceProperties.class)
+@ConditionalOnProperty(prefix = "branchone.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    public static final List<String> PARTITIONED_TABLES = List.of("sale_transactions", "expense_transaction", "daily_sales_rollup");
+    static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionMaintenanceProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${branchone.partitions.cron:0 0 3 * * *}")
+    public void addUpcomingPartitions() {
+        if (!isMySql()) {
+            return;
+        }
+        YearMonth through = YearMonth.now().plusMonths(properties.monthsAhead());
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                addPartitionsThrough(table, through);
+            } catch (DataAccessException e) {
+                // Another instance may have added them first; the next run catches up either way
+                log.warn("Could not add partitions to {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    private void addPartitionsThrough(String table, YearMonth through) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                select partition_name from information_schema.partitions
+                where table_schema = database() and table_name = ? and partition_name is not null
+                order by partition_ordinal_position""", String.class, table);
+        if (!partitions.contains(FUTURE_PARTITION)) {
+            log.debug("{} is not partitioned by month, skipping", table);
+            return;
+        }
+        reorganizeStatement(table, partitions, through).ifPresent(sql -> {
+            jdbcTemplate.execute(sql);
+            log.info("Added monthly partitions to {} through {}", table, through);
+        });
+    }
+
+    // The months after the newest monthly partition (or from this month, if there is none) through the given
+    // one, split out of p_future; empty when they all exist
+    static Optional<String> reorganizeStatement(String table, List<String> partitions, YearMonth through) {
+        YearMonth next = partitions.stream()
+                .filter(name -> name.matches("p\\d{6}"))
+                .map(name -> YearMonth.parse(name, PARTITION_MONTH))
+                .max(Comparator.naturalOrder())
+                .map(newest -> newest.plusMonths(1))
+                .orElse(YearMonth.now());
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+            definitions.add("partition " + month.format(PARTITION_MONTH)
+                    + " values less than ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        if (definitions.isEmpty()) {
+            return Optional.empty();
+        }
+        definitions.add("partition " + FUTURE_PARTITION + " values less than (maxvalue)");
+        return Optional.of("alter table " + table + " reorganize partition " + FUTURE_PARTITION
+                + " into (" + String.join(", ", definitions) + ")");
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+}
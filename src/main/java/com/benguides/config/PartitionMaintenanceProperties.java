@@ -0,0 +1,11 @@
+package com.benguides.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// How far ahead PartitionMaintenanceJob keeps monthly partitions; see application.properties
+@ConfigurationProperties(prefix = "branchone.partitions")
+public record PartitionMaintenanceProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("3") int monthsAhead) {
+}
@@ -0,0 +1,296 @@
+package com.benguides.config;
+
+import com.benguides.models.BlockIdGenerator;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseType;
+import com.benguides.models.Product;
+import com.benguides.models.ProductCategory;
+import com.benguides.models.Role;
+import com.benguides.models.User;
+import com.benguides.repositories.BranchRepository;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.repositories.ExpenseTypeRepository;
+import com.benguides.repositories.ProductCategoryRepository;
+import com.benguides.repositories.ProductRepository;
+import com.benguides.services.DailySalesRollupService;
+import com.benguides.services.RoleService;
+import com.benguides.services.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+// Fills the database with synthetic companies for load and performance testing, e.g.
+//   ./gradlew bootRun --args='--spring.profiles.active=prod,perf'
+// Master data goes through the repositories; readings and expenses are written with JDBC batches
+// and explicit ids, one company per worker thread. Companies that already exist are skipped.
+@Slf4j
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+@EnableConfigurationProperties(PerfDataProperties.class)
+public class PerfDataGenerator implements CommandLineRunner {
+
+    public static final String COMPANY_PREFIX = "Perf Company ";
+
+    private static final String[] PRODUCTS = {"Super Petrol", "Diesel", "Kerosene", "V-Power", "LPG"};
+    private static final BigDecimal[] PRICES = {new BigDecimal("182.50"), new BigDecimal("171.30"),
+            new BigDecimal("158.90"), new BigDecimal("196.40"), new BigDecimal("142.00")};
+    private static final String[] EXPENSE_TYPES = {"Electricity", "Salaries", "Maintenance", "Security", "Water", "Transport"};
+    private static final BigDecimal MARGIN = new BigDecimal("0.92");
+    private static final String[] SHIFTS = {"DAY", "NIGHT"};
+
+    private static final String SALE_INSERT = "insert into sale_transactions (id, transaction_date, created_at, updated_at, " +
+            "litres_opening_reading, litres_closing_reading, cash_opening_reading, cash_closing_reading, " +
+            "quantity, unit_price, total_amount, buying_price, cost_of_sales, shift_session, company_id, branch_id, product_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EXPENSE_INSERT = "insert into expense_transaction (id, transaction_date, comment, amount, " +
+            "created_at, updated_at, expense_type_id, company_id, branch_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final PerfDataProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CompanyRepository companyRepository;
+    private final BranchRepository branchRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final ProductRepository productRepository;
+    private final ExpenseTypeRepository expenseTypeRepository;
+    private final RoleService roleService;
+    private final UserService userService;
+    private final DailySalesRollupService rollupService;
+
+    private record Tenant(int number, Company company, List<Branch> branches, List<Product> products,
+                          List<ExpenseType> expenseTypes, long firstSaleId, long firstExpenseId) {}
+
+    @Override
+    public void run(String... args) throws Exception {
+        generate();
+    }
+
+    // Returns the number of sale and expense rows written
+    public long generate() throws InterruptedException, ExecutionException {
+        List<Integer> pending = IntStream.rangeClosed(1, properties.companies())
+                .filter(number -> !companyRepository.existsByName(COMPANY_PREFIX + number))
+                .boxed()
+                .toList();
+        if (pending.isEmpty()) {
+            log.info("Perf data already present for {} companies, nothing to generate", properties.companies());
+            return 0;
+        }
+        log.info("Generating perf data for {} companies: {} branches x {} products over {} days, ~{} rows",
+                pending.size(), properties.branches(), properties.products(), properties.days(),
+                pending.size() * (properties.salesPerCompany() + properties.expensesPerCompany()));
+
+        roleService.initializeRoles();
+        Role companyAdminRole = roleService.findByName("ROLE_COMPANY_ADMIN")
+                .orElseThrow(() -> new RuntimeException("Company Admin role not found"));
+
+        // Every company gets its own block of ids so workers never collide
+        long saleBase = maxId("sale_transactions");
+        long expenseBase = maxId("expense_transaction");
+        long started = System.nanoTime();
+        long rows = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.threads()));
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                int number = pending.get(i);
+                long firstSaleId = saleBase + i * properties.salesPerCompany() + 1;
+                long firstExpenseId = expenseBase + i * properties.expensesPerCompany() + 1;
+                results.add(executor.submit(() -> generateCompany(number, companyAdminRole, firstSaleId, firstExpenseId)));
+            }
+            for (Future<Long> result : results) {
+                rows += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        reserveIdsThrough("sale_transactions", saleBase + pending.size() * properties.salesPerCompany());
+        reserveIdsThrough("expense_transaction", expenseBase + pending.size() * properties.expensesPerCompany());
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Generated {} rows in {}s ({} rows/s)", rows, String.format("%.1f", seconds), Math.round(rows / seconds));
+        return rows;
+    }
+
+    private long generateCompany(int number, Role companyAdminRole, long firstSaleId, long firstExpenseId) {
+        Tenant tenant = transactionTemplate.execute(status -> createTenant(number, companyAdminRole, firstSaleId, firstExpenseId));
+        Random random = new Random(properties.seed() + number);
+        long rows = insertSales(tenant, random) + insertExpenses(tenant, random);
+        int rollups = rollupService.rebuild(tenant.company().getId());
+        log.info("{}: {} rows, {} rollup rows", tenant.company().getName(), rows, rollups);
+        return rows;
+    }
+
+    private Tenant createTenant(int number, Role companyAdminRole, long firstSaleId, long firstExpenseId) {
+        Company company = new Company();
+        company.setName(COMPANY_PREFIX + number);
+        company.setEmail("perf" + number + "@branchone.com");
+        company.setSubscriptionPlan("PREMIUM");
+        company = companyRepository.save(company);
+
+        List<Branch> branches = new ArrayList<>();
+        for (int b = 1; b <= properties.branches(); b++) {
+            Branch branch = new Branch();
+            branch.setName("Station " + b);
+            branch.setCode("P" + number + "-" + b);
+            branch.setCompany(company);
+            branches.add(branch);
+        }
+
+        ProductCategory fuel = new ProductCategory();
+        fuel.setName("Fuel");
+        fuel.setCompany(company);
+        fuel = productCategoryRepository.save(fuel);
+
+        List<Product> products = new ArrayList<>();
+        for (int p = 0; p < properties.products(); p++) {
+            Product product = new Product();
+            product.setName(PRODUCTS[p % PRODUCTS.length] + (p >= PRODUCTS.length ? " " + (p + 1) : ""));
+            product.setUnitOfMeasurement("Litres");
+            product.setProductCategory(fuel);
+            product.setCompany(company);
+            products.add(product);
+        }
+
+        List<ExpenseType> expenseTypes = new ArrayList<>();
+        for (String name : EXPENSE_TYPES) {
+            ExpenseType type = new ExpenseType();
+            type.setName(name);
+            type.setCompany(company);
+            expenseTypes.add(type);
+        }
+
+        User admin = new User();
+        admin.setUsername("perfadmin" + number);
+        admin.setEmail("perfadmin" + number + "@branchone.com");
+        admin.setFirstName("Perf");
+        admin.setLastName("Admin " + number);
+        admin.setPassword(properties.adminPassword());
+        admin.setMustChangePassword(false);
+        userService.createUser(admin, Set.of(companyAdminRole), company, null);
+
+        return new Tenant(number, company, branchRepository.saveAll(branches), productRepository.saveAll(products),
+                expenseTypeRepository.saveAll(expenseTypes), firstSaleId, firstExpenseId);
+    }
+
+    // Every branch, shift and product of every day; pump meters keep counting up from one shift to the next
+    private long insertSales(Tenant tenant, Random random) {
+        int branches = tenant.branches().size();
+        int products = tenant.products().size();
+        BigDecimal[][] litresMeter = new BigDecimal[branches][products];
+        BigDecimal[][] cashMeter = new BigDecimal[branches][products];
+        for (int b = 0; b < branches; b++) {
+            for (int p = 0; p < products; p++) {
+                litresMeter[b][p] = BigDecimal.valueOf(random.nextInt(5_000_000), 3);
+                cashMeter[b][p] = BigDecimal.valueOf(random.nextInt(50_000_000), 2);
+            }
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long companyId = tenant.company().getId();
+        long id = tenant.firstSaleId();
+        List<Object[]> batch = new ArrayList<>(properties.batchSize());
+        LocalDate first = LocalDate.now().minusDays(properties.days() - 1L);
+        for (int d = 0; d < properties.days(); d++) {
+            LocalDate day = first.plusDays(d);
+            Date date = Date.valueOf(day);
+            // Pump prices move up a little every month
+            BigDecimal drift = BigDecimal.ONE.add(BigDecimal.valueOf(d / 30, 3).multiply(new BigDecimal("5")));
+            for (int b = 0; b < branches; b++) {
+                Long branchId = tenant.branches().get(b).getId();
+                for (String shift : SHIFTS) {
+                    for (int p = 0; p < products; p++) {
+                        BigDecimal price = PRICES[p % PRICES.length].multiply(drift).setScale(2, RoundingMode.HALF_UP);
+                        BigDecimal buyingPrice = price.multiply(MARGIN).setScale(2, RoundingMode.HALF_UP);
+                        // Night shifts and weekends sell less
+                        int volume = shift.equals("DAY") ? 3_000_000 : 1_200_000;
+                        if (day.getDayOfWeek().getValue() >= 6) {
+                            volume = volume * 3 / 4;
+                        }
+                        BigDecimal litres = BigDecimal.valueOf(100_000 + random.nextInt(volume), 3);
+                        BigDecimal cash = litres.multiply(price).setScale(2, RoundingMode.HALF_UP);
+                        BigDecimal litresOpening = litresMeter[b][p];
+                        BigDecimal cashOpening = cashMeter[b][p];
+                        litresMeter[b][p] = litresOpening.add(litres);
+                        cashMeter[b][p] = cashOpening.add(cash);
+                        batch.add(new Object[]{id++, date, now, now, litresOpening, litresMeter[b][p], cashOpening, cashMeter[b][p],
+                                litres, price, cash, buyingPrice, litres.multiply(buyingPrice).setScale(2, RoundingMode.HALF_UP),
+                                shift, companyId, branchId, tenant.products().get(p).getId()});
+                        if (batch.size() == properties.batchSize()) {
+                            write(SALE_INSERT, batch);
+                        }
+                    }
+                }
+            }
+        }
+        write(SALE_INSERT, batch);
+        return id - tenant.firstSaleId();
+    }
+
+    private long insertExpenses(Tenant tenant, Random random) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long companyId = tenant.company().getId();
+        long id = tenant.firstExpenseId();
+        List<Object[]> batch = new ArrayList<>(properties.batchSize());
+        LocalDate first = LocalDate.now().minusDays(properties.days() - 1L);
+        for (int d = 0; d < properties.days(); d++) {
+            Date date = Date.valueOf(first.plusDays(d));
+            for (Branch branch : tenant.branches()) {
+                for (int e = 0; e < properties.expensesPerBranchPerDay(); e++) {
+                    ExpenseType type = tenant.expenseTypes().get(random.nextInt(tenant.expenseTypes().size()));
+                    batch.add(new Object[]{id++, date, type.getName() + " for " + branch.getName(),
+                            BigDecimal.valueOf(50_000 + random.nextInt(2_500_000), 2), now, now,
+                            type.getId(), companyId, branch.getId()});
+                    if (batch.size() == properties.batchSize()) {
+                        write(EXPENSE_INSERT, batch);
+                    }
+                }
+            }
+        }
+        write(EXPENSE_INSERT, batch);
+        return id - tenant.firstExpenseId();
+    }
+
+    // One transaction per batch so a worker never holds locks for long
+    private void write(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        batch.clear();
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    // Moves the id_blocks counter past the explicit ids, so BlockIdGenerator's next block starts above them
+    private void reserveIdsThrough(String table, long lastId) {
+        long block = BlockIdGenerator.blockAfter(lastId);
+        jdbcTemplate.update(BlockIdGenerator.RESERVE_BLOCK_SQL, block, table, block);
+    }
+}
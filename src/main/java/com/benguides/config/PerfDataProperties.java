@@ -0,0 +1,30 @@
+package com.benguides.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Size of the synthetic data set created under the perf profile; see application-perf.properties
+@ConfigurationProperties(prefix = "perf.data")
+public record PerfDataProperties(
+        @DefaultValue("20") int companies,
+        @DefaultValue("25") int branches,
+        @DefaultValue("5") int products,
+        @DefaultValue("5") int years,
+        @DefaultValue("2") int expensesPerBranchPerDay,
+        @DefaultValue("4") int threads,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("perf@123") String adminPassword,
+        @DefaultValue("42") long seed) {
+
+    public int days() {
+        return years * 365;
+    }
+
+    public long salesPerCompany() {
+        return (long) branches * products * 2 * days();
+    }
+
+    public long expensesPerCompany() {
+        return (long) branches * expensesPerBranchPerDay * days();
+    }
+}
@@ -0,0 +1,41 @@
+package com.benguides.config;
+
+import java.util.function.Supplier;
+
+// Keeps read-only transactions on the primary for code that knows the replica may be behind, such as a reload
+// triggered by a change another user has just committed. Only consulted when ReplicaRoutingConfig is active.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static void runOnPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    public static boolean primaryRequested() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    // For handing work to another thread: it runs on the primary if the submitting thread asked for that
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        return primaryRequested() ? () -> onPrimary(work) : work;
+    }
+}
@@ -0,0 +1,66 @@
+package com.benguides.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Local stand-in for replication (replica profile): the replica is a separate in-memory H2 database that gets
+// a copy of the primary every simulated-replica-lag, so it is behind by up to that long, as a real replica
+// can be. A read that lands on the replica while it is being replaced fails; this is for trying out routing
+// and read-your-writes by hand, not for load.
+@Slf4j
+@Component
+@Profile("replica")
+public class ReplicaLagSimulator {
+
+    private final DataSource primary;
+    private final String replicaUrl;
+    private final String replicaUsername;
+    private final String replicaPassword;
+
+    public ReplicaLagSimulator(@Qualifier("primaryDataSource") DataSource primary,
+                               @Value("${branchone.datasource.replica.jdbc-url}") String replicaUrl,
+                               @Value("${branchone.datasource.replica.username}") String replicaUsername,
+                               @Value("${branchone.datasource.replica.password}") String replicaPassword) {
+        this.primary = primary;
+        this.replicaUrl = replicaUrl;
+        this.replicaUsername = replicaUsername;
+        this.replicaPassword = replicaPassword;
+    }
+
+    @Scheduled(fixedDelayString = "${branchone.datasource.simulated-replica-lag:10s}")
+    public void copyPrimaryToReplica() {
+        try {
+            Path script = Files.createTempFile("replica", ".sql");
+            try {
+                try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+                    statement.execute("SCRIPT TO '" + script + "'");
+                }
+                try (Connection connection = DriverManager.getConnection(replicaUrl, replicaUsername, replicaPassword);
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("DROP ALL OBJECTS");
+                    statement.execute("RUNSCRIPT FROM '" + script + "'");
+                }
+            } finally {
+                Files.deleteIfExists(script);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not copy the primary to the simulated replica: {}", e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.benguides.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+// With -Dspring.aot.enabled=true the bean definitions come from processAot, which decided whether
+// ReplicaRoutingConfig applies from the properties it was built with. Setting or clearing
+// branchone.datasource.replica.jdbc-url afterwards would silently keep every read on the primary, or route
+// reads to a pool without a URL, so startup stops instead. Build with -PaotReplica to include the replica.
+@Component
+public class ReplicaRoutingCheck {
+
+    static final String REPLICA_URL = "branchone.datasource.replica.jdbc-url";
+
+    public ReplicaRoutingCheck(Environment environment, ObjectProvider<ReplicaRoutingConfig> routing) {
+        boolean configured = environment.containsProperty(REPLICA_URL);
+        boolean routed = routing.getIfAvailable() != null;
+        if (configured != routed) {
+            throw new IllegalStateException(configured
+                    ? REPLICA_URL + " is set, but this build was AOT-processed without a replica; rebuild with -PaotReplica or start without spring.aot.enabled"
+                    : "This build was AOT-processed with a replica (-PaotReplica), but " + REPLICA_URL + " is not set");
+        }
+    }
+}
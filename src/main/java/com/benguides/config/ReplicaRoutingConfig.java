@@ -0,0 +1,147 @@
+package com.benguides.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Sends read-only transactions (grids, analytics, exports) to a read replica and everything else, including
+// work outside a transaction such as Flyway, to the primary. Active once branchone.datasource.replica.jdbc-url
+// is set; without it the single auto-configured pool serves everything.
+// Replicas lag: for read-your-writes-window after a user's read-write transaction commits, that user's
+// read-only transactions stay on the primary, so saving a sale and reloading the grid shows the new row.
+// Users are told apart by the security context, which AnalyticsExecutor carries over to its threads; reads
+// that follow another user's change (CompanyEventBus deliveries) ask for the primary through ReadRouting.
+// processAot evaluates the condition below at build time; ReplicaRoutingCheck refuses to start when the
+// property disagrees with what was baked in.
+@Configuration
+@ConditionalOnProperty(prefix = "branchone.datasource.replica", name = "jdbc-url")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class ReplicaRoutingConfig {
+
+    private enum Target { PRIMARY, REPLICA }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("branchone.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // Lazy, so the physical connection is only taken at the first statement, once the transaction manager
+    // has marked the transaction read-only or not
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 RoutingDataSourceProperties properties) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(new RecentWriters(properties));
+        routing.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Hibernate otherwise holds a session's connection until the session closes, and with open-in-view one
+    // session spans a whole request: a replica connection taken for a read would then serve the writes after it
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    static class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+        private final RecentWriters recentWriters;
+
+        ReadWriteRoutingDataSource(RecentWriters recentWriters) {
+            this.recentWriters = recentWriters;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                return Target.PRIMARY;
+            }
+            String user = currentUser();
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                boolean recentWriter = user != null && recentWriters.contains(user);
+                return recentWriter || ReadRouting.primaryRequested() ? Target.PRIMARY : Target.REPLICA;
+            }
+            if (user != null) {
+                recentWriters.recordOnCommit(user);
+            }
+            return Target.PRIMARY;
+        }
+
+        private static String currentUser() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+        }
+    }
+
+    // Users whose read-write transactions committed within the window
+    static class RecentWriters {
+
+        private final Cache<String, Boolean> writers;
+
+        RecentWriters(RoutingDataSourceProperties properties) {
+            this.writers = Caffeine.newBuilder()
+                    .expireAfterWrite(properties.readYourWritesWindow())
+                    .build();
+        }
+
+        boolean contains(String user) {
+            return writers.getIfPresent(user) != null;
+        }
+
+        // Once per transaction, however many connections it takes
+        void recordOnCommit(String user) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()
+                    || TransactionSynchronizationManager.hasResource(this)) {
+                return;
+            }
+            TransactionSynchronizationManager.bindResource(this, user);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writers.put(user, Boolean.TRUE);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RecentWriters.this);
+                }
+            });
+        }
+    }
+}
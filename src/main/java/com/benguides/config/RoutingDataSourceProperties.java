@@ -0,0 +1,12 @@
+package com.benguides.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Read-your-writes window for ReplicaRoutingConfig; see application.properties
+@ConfigurationProperties(prefix = "branchone.datasource")
+public record RoutingDataSourceProperties(
+        @DefaultValue("5s") Duration readYourWritesWindow) {
+}
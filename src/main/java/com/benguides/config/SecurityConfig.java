@@ -4,6 +4,7 @@ import com.benguides.frontend.views.LoginView;
 import com.benguides.repositories.UserRepository;
 import com.benguides.security.CustomUserDetailsService;
 import com.vaadin.flow.spring.security.VaadinWebSecurity;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,6 +33,11 @@ public class SecurityConfig extends VaadinWebSecurity {
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
+        // Health checks (including the liveness and readiness probes) and the Prometheus scraper do not log in.
+        // Only matches on management.server.port; the public port does not serve the actuator at all
+        http.authorizeHttpRequests(auth -> auth
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll());
+
         // Let Vaadin configure its internals
         super.configure(http);
 
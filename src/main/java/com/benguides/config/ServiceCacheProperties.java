@@ -0,0 +1,15 @@
+package com.benguides.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Bounds for each service-level cache in CacheConfig; see application.properties
+@ConfigurationProperties(prefix = "branchone.cache")
+public record ServiceCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration expireAfterWrite,
+        @DefaultValue("500") long monthlyCloseMaximumSize,
+        @DefaultValue("1d") Duration monthlyCloseExpireAfterWrite) {
+}
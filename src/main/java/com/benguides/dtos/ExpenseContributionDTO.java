@@ -0,0 +1,27 @@
+package com.benguides.dtos;
+
+import com.benguides.models.ExpenseTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The part of an expense that feeds the expense totals: where and when it was spent, and how much.
+ */
+public record ExpenseContributionDTO(
+        Long companyId,
+        Long branchId,
+        Long expenseTypeId,
+        LocalDate transactionDate,
+        BigDecimal amount
+) {
+    public static ExpenseContributionDTO of(ExpenseTransaction expense) {
+        return new ExpenseContributionDTO(
+                expense.getCompany().getId(),
+                expense.getBranch() != null ? expense.getBranch().getId() : null,
+                expense.getExpenseType().getId(),
+                expense.getTransactionDate(),
+                expense.getAmount()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.benguides.dtos;
+
+import java.util.List;
+
+// Outcome of a bulk import. Only the first rejected rows are kept in errors; errorCount has them all.
+public record ImportResult(
+        long rowsRead,
+        long rowsImported,
+        long errorCount,
+        List<RowError> errors
+) {
+    public ImportResult {
+        errors = List.copyOf(errors);
+    }
+
+    public record RowError(long rowNumber, String message) {}
+}
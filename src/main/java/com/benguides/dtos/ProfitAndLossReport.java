@@ -0,0 +1,49 @@
+package com.benguides.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Profit and loss for one period by branch, product, day and month, folded from a single query.
+// Expenses are booked per branch, not per product, so product lines carry revenue, cost of sales and
+// gross margin only; branch, day, month and total lines include expenses and net profit.
+public record ProfitAndLossReport(
+        LocalDate start,
+        LocalDate end,
+        List<Line> branches,
+        List<Line> products,
+        List<Line> days,
+        List<Line> months,
+        Line total
+) {
+    public ProfitAndLossReport {
+        branches = List.copyOf(branches);
+        products = List.copyOf(products);
+        days = List.copyOf(days);
+        months = List.copyOf(months);
+    }
+
+    // id and name identify the branch or product (null id: expenses recorded without a branch);
+    // period is the day, or the first day of the month, for time lines
+    public record Line(
+            Long id,
+            String name,
+            LocalDate period,
+            BigDecimal revenue,
+            BigDecimal costOfSales,
+            BigDecimal expenses
+    ) {
+        public BigDecimal grossMargin() {
+            return revenue.subtract(costOfSales);
+        }
+
+        public BigDecimal netProfit() {
+            return grossMargin().subtract(expenses);
+        }
+
+        public Line plus(Line other) {
+            return new Line(id, name, period, revenue.add(other.revenue), costOfSales.add(other.costOfSales),
+                    expenses.add(other.expenses));
+        }
+    }
+}
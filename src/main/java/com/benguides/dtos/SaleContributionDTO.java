@@ -0,0 +1,33 @@
+package com.benguides.dtos;
+
+import com.benguides.models.SaleTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The part of a sale that feeds the daily rollup: its bucket key and its amounts.
+ */
+public record SaleContributionDTO(
+        Long companyId,
+        Long branchId,
+        Long productId,
+        LocalDate transactionDate,
+        SaleTransaction.ShiftSession shiftSession,
+        BigDecimal totalAmount,
+        BigDecimal costOfSales,
+        BigDecimal quantity
+) {
+    public static SaleContributionDTO of(SaleTransaction sale) {
+        return new SaleContributionDTO(
+                sale.getCompany().getId(),
+                sale.getBranch().getId(),
+                sale.getProduct().getId(),
+                sale.getTransactionDate(),
+                sale.getShiftSession(),
+                sale.getTotalAmount(),
+                sale.getCostOfSales(),
+                sale.getQuantity()
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package com.benguides.dtos;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Branch, product and company totals for one period, computed from a single query.
+// start and end are null for the all-time snapshot.
+public record SalesAnalyticsSnapshot(
+        LocalDate start,
+        LocalDate end,
+        List<Aggregate> branches,
+        List<Aggregate> products,
+        Aggregate total
+) {
+    public SalesAnalyticsSnapshot {
+        branches = List.copyOf(branches);
+        products = List.copyOf(products);
+    }
+
+    public boolean covers(LocalDate date) {
+        return start == null || (!date.isBefore(start) && !date.isAfter(end));
+    }
+
+    // This snapshot with committed sales writes applied, without querying: removed contributions are taken
+    // out and added ones summed in wherever their date falls in the period. Empty when a sale is for a branch
+    // or product that has no row yet, whose name the snapshot does not know; query a new snapshot then.
+    public Optional<SalesAnalyticsSnapshot> apply(Collection<SaleContributionDTO> removed,
+                                                  Collection<SaleContributionDTO> added) {
+        Map<Long, Aggregate> branchesById = byId(branches);
+        Map<Long, Aggregate> productsById = byId(products);
+        Aggregate newTotal = total;
+        for (SaleContributionDTO contribution : removed) {
+            if (!covers(contribution.transactionDate())) {
+                continue;
+            }
+            if (!branchesById.containsKey(contribution.branchId()) || !productsById.containsKey(contribution.productId())) {
+                return Optional.empty();
+            }
+            branchesById.computeIfPresent(contribution.branchId(), (id, aggregate) -> aggregate.minus(contribution));
+            productsById.computeIfPresent(contribution.productId(), (id, aggregate) -> aggregate.minus(contribution));
+            newTotal = newTotal.minus(contribution);
+        }
+        for (SaleContributionDTO contribution : added) {
+            if (!covers(contribution.transactionDate())) {
+                continue;
+            }
+            if (!branchesById.containsKey(contribution.branchId()) || !productsById.containsKey(contribution.productId())) {
+                return Optional.empty();
+            }
+            branchesById.computeIfPresent(contribution.branchId(), (id, aggregate) -> aggregate.plus(contribution));
+            productsById.computeIfPresent(contribution.productId(), (id, aggregate) -> aggregate.plus(contribution));
+            newTotal = newTotal.plus(contribution);
+        }
+        return Optional.of(new SalesAnalyticsSnapshot(start, end,
+                List.copyOf(branchesById.values()), List.copyOf(productsById.values()), newTotal));
+    }
+
+    private static Map<Long, Aggregate> byId(List<Aggregate> aggregates) {
+        Map<Long, Aggregate> byId = new LinkedHashMap<>();
+        aggregates.forEach(aggregate -> byId.put(aggregate.id(), aggregate));
+        return byId;
+    }
+
+    public record Aggregate(
+            Long id,
+            String name,
+            BigDecimal revenue,
+            BigDecimal cost,
+            BigDecimal quantity
+    ) {
+        public BigDecimal profit() {
+            return revenue.subtract(cost);
+        }
+
+        // Rounded to the rollup's column scales, as the totals it was read from are
+        public Aggregate plus(SaleContributionDTO contribution) {
+            return new Aggregate(id, name,
+                    revenue.add(scaled(contribution.totalAmount(), 2)),
+                    cost.add(scaled(contribution.costOfSales(), 2)),
+                    quantity.add(scaled(contribution.quantity(), 3)));
+        }
+
+        public Aggregate minus(SaleContributionDTO contribution) {
+            return new Aggregate(id, name,
+                    revenue.subtract(scaled(contribution.totalAmount(), 2)),
+                    cost.subtract(scaled(contribution.costOfSales(), 2)),
+                    quantity.subtract(scaled(contribution.quantity(), 3)));
+        }
+
+        private static BigDecimal scaled(BigDecimal value, int scale) {
+            return value != null ? value.setScale(scale, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        }
+    }
+}
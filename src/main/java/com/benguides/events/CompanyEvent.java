@@ -0,0 +1,6 @@
+package com.benguides.events;
+
+// A committed change to one company's data, delivered by CompanyEventBus to that company's subscribers
+public sealed interface CompanyEvent permits SalesChangedEvent, ExpensesChangedEvent {
+    Long companyId();
+}
@@ -0,0 +1,72 @@
+package com.benguides.events;
+
+import com.vaadin.flow.shared.Registration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-process fan-out of committed changes to the views open for a company. Services publish CompanyEvents
+// with ApplicationEventPublisher inside their transaction; they reach subscribers only after it commits,
+// and never at all if it rolls back. Each delivery runs on the application task executor so the committing
+// thread does not wait on UI locks.
+@Slf4j
+@Component
+public class CompanyEventBus {
+
+    private final TaskExecutor executor;
+    private final Map<Long, List<Subscription<?>>> subscriptions = new ConcurrentHashMap<>();
+
+    public CompanyEventBus(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    private record Subscription<E extends CompanyEvent>(Class<E> type, Consumer<? super E> listener) {
+        void deliver(CompanyEvent event) {
+            if (type.isInstance(event)) {
+                listener.accept(type.cast(event));
+            }
+        }
+    }
+
+    // Remove the registration when the subscriber goes away, e.g. from a view's onDetach
+    public <E extends CompanyEvent> Registration subscribe(Long companyId, Class<E> type, Consumer<? super E> listener) {
+        Subscription<E> subscription = new Subscription<>(type, listener);
+        // Added and removed under the map's lock, so a subscription never lands in a list being dropped
+        subscriptions.compute(companyId, (id, list) -> {
+            List<Subscription<?>> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(subscription);
+            return updated;
+        });
+        return () -> subscriptions.computeIfPresent(companyId, (id, list) -> {
+            list.remove(subscription);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onCommit(CompanyEvent event) {
+        List<Subscription<?>> subscribers = subscriptions.get(event.companyId());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription<?> subscription : subscribers) {
+            executor.execute(() -> {
+                try {
+                    subscription.deliver(event);
+                } catch (RuntimeException e) {
+                    log.warn("Could not deliver {} to a subscriber of company {}: {}",
+                            event.getClass().getSimpleName(), event.companyId(), e.toString());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.benguides.events;
+
+import com.benguides.dtos.ExpenseContributionDTO;
+
+import java.util.List;
+
+// Expenses written in one transaction: removed are the persisted values of edited or deleted expenses,
+// added the values now stored
+public record ExpensesChangedEvent(
+        Long companyId,
+        List<ExpenseContributionDTO> removed,
+        List<ExpenseContributionDTO> added
+) implements CompanyEvent {
+    public ExpensesChangedEvent {
+        removed = List.copyOf(removed);
+        added = List.copyOf(added);
+    }
+}
@@ -0,0 +1,19 @@
+package com.benguides.events;
+
+import com.benguides.dtos.SaleContributionDTO;
+
+import java.util.List;
+
+// Sales written in one transaction: removed are the persisted values of edited or deleted sales, added the
+// values now stored. The same contributions DailySalesRollupService applies, so a subscriber holding totals
+// can stay in step with the rollup without querying it.
+public record SalesChangedEvent(
+        Long companyId,
+        List<SaleContributionDTO> removed,
+        List<SaleContributionDTO> added
+) implements CompanyEvent {
+    public SalesChangedEvent {
+        removed = List.copyOf(removed);
+        added = List.copyOf(added);
+    }
+}
@@ -0,0 +1,160 @@
+package com.benguides.frontend.data;
+
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+// Lazy grid provider for transaction lists ordered newest first on (transactionDate, id).
+// In that order each fetch seeks from the last row already loaded instead of using OFFSET;
+// any other sort order falls back to offset paging. Row counts are cached per date range.
+public class KeysetDataProvider<T> extends CallbackDataProvider<T, Void> {
+
+    public static final String DATE_PROPERTY = "transactionDate";
+
+    // Furthest we walk forward from a known row before falling back to OFFSET (e.g. dragging the scrollbar)
+    private static final int MAX_SEEK_GAP = 1000;
+
+    public record DateRange(LocalDate start, LocalDate end) {}
+
+    @FunctionalInterface
+    public interface SeekFetch<T> {
+        // Rows after (afterDate, afterId) newest first; both are null for the first page
+        List<T> fetch(DateRange range, LocalDate afterDate, Long afterId, int limit);
+    }
+
+    @FunctionalInterface
+    public interface OffsetFetch<T> {
+        List<T> fetch(DateRange range, PageRequest pageRequest);
+    }
+
+    private final Cursor<T> cursor;
+
+    public KeysetDataProvider(SeekFetch<T> seekFetch, OffsetFetch<T> offsetFetch, ToLongFunction<DateRange> counter,
+                              Function<T, LocalDate> dateOf, Function<T, Long> idOf) {
+        this(new Cursor<>(seekFetch, offsetFetch, counter, dateOf, idOf));
+    }
+
+    private KeysetDataProvider(Cursor<T> cursor) {
+        super(cursor::fetch, cursor::count, cursor::id);
+        this.cursor = cursor;
+    }
+
+    public DateRange getDateRange() {
+        return cursor.range;
+    }
+
+    public long getCount() {
+        return cursor.totalCount();
+    }
+
+    // Switches the grid to another date range; counts cached for other ranges are kept
+    public void setDateRange(DateRange range) {
+        cursor.setRange(range);
+        super.refreshAll();
+    }
+
+    // The underlying rows changed, so cached counts and seek positions are stale
+    @Override
+    public void refreshAll() {
+        cursor.reset();
+        super.refreshAll();
+    }
+
+    private static final class Cursor<T> {
+        private final SeekFetch<T> seekFetch;
+        private final OffsetFetch<T> offsetFetch;
+        private final ToLongFunction<DateRange> counter;
+        private final Function<T, LocalDate> dateOf;
+        private final Function<T, Long> idOf;
+
+        private final Map<DateRange, Long> counts = new HashMap<>();
+        // Offset -> the row just before it in default order, for the current range
+        private final NavigableMap<Integer, T> bookmarks = new TreeMap<>();
+        private DateRange range = new DateRange(null, null);
+
+        Cursor(SeekFetch<T> seekFetch, OffsetFetch<T> offsetFetch, ToLongFunction<DateRange> counter,
+               Function<T, LocalDate> dateOf, Function<T, Long> idOf) {
+            this.seekFetch = seekFetch;
+            this.offsetFetch = offsetFetch;
+            this.counter = counter;
+            this.dateOf = dateOf;
+            this.idOf = idOf;
+        }
+
+        void setRange(DateRange range) {
+            this.range = range;
+            bookmarks.clear();
+        }
+
+        void reset() {
+            counts.clear();
+            bookmarks.clear();
+        }
+
+        Object id(T item) {
+            return idOf.apply(item);
+        }
+
+        long totalCount() {
+            return counts.computeIfAbsent(range, counter::applyAsLong);
+        }
+
+        int count(Query<T, Void> query) {
+            return (int) Math.min(Integer.MAX_VALUE, totalCount());
+        }
+
+        Stream<T> fetch(Query<T, Void> query) {
+            if (!isDefaultOrder(query.getSortOrders())) {
+                PageRequest pageRequest = VaadinSpringDataHelpers.toSpringPageRequest(query);
+                return offsetFetch.fetch(range, pageRequest.withSort(pageRequest.getSort().and(Sort.by(Sort.Direction.DESC, "id")))).stream();
+            }
+
+            int offset = query.getOffset();
+            int limit = query.getLimit();
+            Map.Entry<Integer, T> bookmark = bookmarks.floorEntry(offset);
+            int gap = bookmark != null ? offset - bookmark.getKey() : offset;
+
+            List<T> rows;
+            if (gap <= MAX_SEEK_GAP) {
+                T after = bookmark != null ? bookmark.getValue() : null;
+                List<T> fetched = after != null
+                        ? seekFetch.fetch(range, dateOf.apply(after), idOf.apply(after), gap + limit)
+                        : seekFetch.fetch(range, null, null, gap + limit);
+                rows = fetched.subList(Math.min(gap, fetched.size()), fetched.size());
+            } else {
+                PageRequest pageRequest = VaadinSpringDataHelpers.toSpringPageRequest(query)
+                        .withSort(Sort.by(Sort.Direction.DESC, DATE_PROPERTY, "id"));
+                rows = offsetFetch.fetch(range, pageRequest);
+            }
+
+            if (!rows.isEmpty()) {
+                bookmarks.put(offset + rows.size(), rows.get(rows.size() - 1));
+            }
+            return rows.stream();
+        }
+
+        private boolean isDefaultOrder(List<QuerySortOrder> sortOrders) {
+            if (sortOrders.isEmpty()) {
+                return true;
+            }
+            QuerySortOrder order = sortOrders.get(0);
+            return sortOrders.size() == 1
+                    && DATE_PROPERTY.equals(order.getSorted())
+                    && order.getDirection() == SortDirection.DESCENDING;
+        }
+    }
+}
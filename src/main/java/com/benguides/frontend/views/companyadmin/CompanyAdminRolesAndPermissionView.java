@@ -238,7 +238,8 @@ public class CompanyAdminRolesAndPermissionView extends VerticalLayout {
     }
 
     private void onRoleSelected(Role role) {
-        this.selectedRole = role;
+        // Permission toggles edit the role in place, so work on a copy rather than the cached grid item
+        this.selectedRole = roleService.findByName(role.getName()).orElse(role);
         selectedRoleLabel.setText(role.getDisplayName() + " (" + role.getName() + ")");
         saveAllButton.setEnabled(false);
 
@@ -384,10 +385,11 @@ public class CompanyAdminRolesAndPermissionView extends VerticalLayout {
         Checkbox resignable = new Checkbox("Resignable", role.isResignable());
 
         Button save = new Button("Save", e -> {
-            role.setDisplayName(displayName.getValue());
-            role.setRevokable(revokable.getValue());
-            role.setResignable(resignable.getValue());
-            roleService.save(role);
+            Role toSave = roleService.findByName(role.getName()).orElse(role);
+            toSave.setDisplayName(displayName.getValue());
+            toSave.setRevokable(revokable.getValue());
+            toSave.setResignable(resignable.getValue());
+            roleService.save(toSave);
             Notification.show("Role updated successfully!");
             loadRoles();
             dialog.close();
@@ -421,7 +423,7 @@ public class CompanyAdminRolesAndPermissionView extends VerticalLayout {
             try {
                 // Check if any users have this role before deleting
                 // You might want to add a method in UserService to check this
-                roleService.getAllRoles().remove(role); // This is simplified - you'll need proper deletion logic
+                // Role deletion is not implemented yet; the role list is shared and must not be modified here
                 Notification.show("Role deleted successfully!");
                 loadRoles();
             } catch (Exception ex) {
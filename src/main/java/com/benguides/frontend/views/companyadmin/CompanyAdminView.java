@@ -374,7 +374,8 @@ public class CompanyAdminView extends VerticalLayout {
 
     private void saveBranch(Branch branch, String name, String code, String address, String phone, String email, boolean isEdit) {
         try {
-            Branch branchToSave = isEdit ? branch : new Branch();
+            // Grid items are shared through the branch cache, so edits go to a freshly loaded copy
+            Branch branchToSave = isEdit ? branchService.getBranchById(branch.getId()).orElse(branch) : new Branch();
             branchToSave.setName(name);
             branchToSave.setCode(code);
             branchToSave.setAddress(address);
@@ -1,15 +1,24 @@
 package com.benguides.frontend.views.expenses;
 
+import com.benguides.dtos.ExpenseContributionDTO;
 import com.benguides.dtos.ExpenseTransactionDTO;
 import com.benguides.dtos.ExpenseTypeDTO;
+import com.benguides.events.CompanyEventBus;
+import com.benguides.events.ExpensesChangedEvent;
+import com.benguides.frontend.data.KeysetDataProvider;
 import com.benguides.models.Branch;
 import com.benguides.models.Company;
 import com.benguides.models.ExpenseTransaction;
 import com.benguides.models.ExpenseType;
+import com.benguides.models.User;
 import com.benguides.security.SecurityService;
 import com.benguides.services.BranchService;
 import com.benguides.services.ExpenseTransactionService;
 import com.benguides.services.ExpenseTypeService;
+import com.benguides.services.exports.TransactionExportService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -18,6 +27,7 @@ import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H4;
@@ -33,14 +43,16 @@ import com.vaadin.flow.component.textfield.BigDecimalField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.UIScope;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -61,6 +73,8 @@ public class ExpenseView extends VerticalLayout {
     private final ExpenseTypeService expenseTypeService;
     private final BranchService branchService;
     private final SecurityService securityService;
+    private final TransactionExportService exportService;
+    private final CompanyEventBus eventBus;
 
     private final Tab typesTab = new Tab("Expense Types");
     private final Tab transactionsTab = new Tab("Expenses");
@@ -76,30 +90,37 @@ public class ExpenseView extends VerticalLayout {
     private Branch currentBranch;
     private Long companyId;
 
-    // For transactions pagination and filtering
-    private int pageNumber = 0;
-    private int pageSize = 10;
-    private ComboBox<Integer> pageSizeCombo;
-    private Button prevButton;
-    private Button nextButton;
-    private Span pageLabel;
+    // For transactions lazy loading and filtering
+    private KeysetDataProvider<ExpenseTransactionDTO> transactionsProvider;
+    private Span recordCountLabel;
+    // Total of the filtered range, kept current from ExpensesChangedEvents instead of re-querying
+    private Span periodTotalLabel;
+    private KeysetDataProvider.DateRange totalRange;
+    private BigDecimal periodTotal;
+    private Registration expensesSubscription;
     private DatePicker recordsFromDatePicker;
     private DatePicker recordsToDatePicker;
     private Button filterRecordsButton;
+    private Anchor exportLink;
 
     @Autowired
     public ExpenseView(ExpenseTransactionService expenseTransactionService,
                        ExpenseTypeService expenseTypeService,
                        BranchService branchService,
-                       SecurityService securityService) {
+                       SecurityService securityService,
+                       TransactionExportService exportService,
+                       CompanyEventBus eventBus) {
         this.expenseTransactionService = expenseTransactionService;
         this.expenseTypeService = expenseTypeService;
         this.branchService = branchService;
         this.securityService = securityService;
+        this.exportService = exportService;
+        this.eventBus = eventBus;
 
+        User currentUser = securityService.getAuthenticatedUserOrThrow();
         this.isCompanyAdmin = securityService.hasRole("ROLE_COMPANY_ADMIN");
-        this.currentCompany = securityService.getAuthenticatedUserOrThrow().getCompany();
-        this.currentBranch = securityService.getAuthenticatedUserOrThrow().getBranch();
+        this.currentCompany = currentUser.getCompany();
+        this.currentBranch = currentUser.getBranch();
         this.companyId = currentCompany.getId();
 
         setSizeFull();
@@ -492,57 +513,46 @@ public class ExpenseView extends VerticalLayout {
         recordsFromDatePicker.setValue(LocalDate.now().minusDays(30));
         recordsToDatePicker = new DatePicker("To Date");
         recordsToDatePicker.setValue(LocalDate.now());
-        filterRecordsButton = new Button("Filter", e -> {
-            pageNumber = 0;
-            refreshTransactions();
-        });
+        filterRecordsButton = new Button("Filter", e -> refreshTransactions());
         filterRecordsButton.getStyle()
                 .set("background", "#FF7F11")
                 .set("color", "white");
 
-        filterLayout.add(recordsFromDatePicker, recordsToDatePicker, filterRecordsButton);
-
-        // Style pagination section
-        HorizontalLayout paginationLayout = new HorizontalLayout();
-        paginationLayout.setAlignItems(Alignment.BASELINE);
-        paginationLayout.setPadding(false);
-        paginationLayout.setMargin(false);
-        paginationLayout.getStyle()
+        // Streams the filtered range as CSV straight to the browser
+        Button exportButton = new Button("Export CSV");
+        exportButton.getStyle()
+                .set("background", "#0A9396")
+                .set("color", "white");
+        exportLink = new Anchor();
+        exportLink.getElement().setAttribute("download", true);
+        exportLink.add(exportButton);
+
+        filterLayout.add(recordsFromDatePicker, recordsToDatePicker, filterRecordsButton, exportLink);
+
+        // Style record count section
+        HorizontalLayout countLayout = new HorizontalLayout();
+        countLayout.setAlignItems(Alignment.BASELINE);
+        countLayout.setPadding(false);
+        countLayout.setMargin(false);
+        countLayout.getStyle()
                 .set("background", "rgba(10,147,150,0.05)")
                 .set("padding", "var(--lumo-space-m)")
                 .set("border-radius", "0.5rem")
                 .set("border", "1px solid rgba(10,147,150,0.1)");
 
-        pageSizeCombo = new ComboBox<>("Records per page");
-        pageSizeCombo.setItems(Arrays.asList(10, 20, 50, 100));
-        pageSizeCombo.setValue(10);
-        pageSizeCombo.setWidth("150px");
-        pageSizeCombo.addValueChangeListener(e -> {
-            pageSize = e.getValue();
-            pageNumber = 0;
-            refreshTransactions();
-        });
+        recordCountLabel = new Span();
+        recordCountLabel.getStyle().set("font-weight", "600");
 
-        prevButton = new Button("Prev", e -> {
-            if (pageNumber > 0) {
-                pageNumber--;
-                refreshTransactions();
-            }
-        });
-        prevButton.getStyle().set("color", "#FF7F11");
-
-        nextButton = new Button("Next", e -> {
-            pageNumber++;
-            refreshTransactions();
-        });
-        nextButton.getStyle().set("color", "#0A9396");
-
-        pageLabel = new Span();
-        pageLabel.getStyle().set("font-weight", "600");
+        periodTotalLabel = new Span();
+        periodTotalLabel.getStyle()
+                .set("font-weight", "600")
+                .set("color", "#0A9396")
+                .set("margin-left", "auto");
 
-        paginationLayout.add(pageSizeCombo, prevButton, nextButton, pageLabel);
+        countLayout.setWidthFull();
+        countLayout.add(recordCountLabel, periodTotalLabel);
 
-        transactionsLayout.add(addExpenseButton, filterLayout, paginationLayout, transactionsGrid);
+        transactionsLayout.add(addExpenseButton, filterLayout, countLayout, transactionsGrid);
 
         refreshTransactions();
 
@@ -774,10 +784,11 @@ public class ExpenseView extends VerticalLayout {
         TextField branchTextField = null;
 
         if (isCompanyAdmin) {
+            List<Branch> branches = branchService.getActiveBranchesByCompany(companyId);
             branchComboBox = new ComboBox<>("Branch");
-            branchComboBox.setItems(branchService.getActiveBranchesByCompany(companyId));
+            branchComboBox.setItems(branches);
             branchComboBox.setItemLabelGenerator(Branch::getName);
-            branchComboBox.setValue(branchService.getActiveBranchesByCompany(companyId)
+            branchComboBox.setValue(branches
                     .stream()
                     .filter(b -> b.getId().equals(transactionDTO.branchId()))
                     .findFirst()
@@ -786,15 +797,17 @@ public class ExpenseView extends VerticalLayout {
             formLayout.add(branchComboBox);
         } else {
             branchTextField = new TextField("Branch");
-            branchTextField.setValue(transactionDTO.branchName());
+            // Company-wide expenses (e.g. imported without a branch) have none
+            branchTextField.setValue(Objects.requireNonNullElse(transactionDTO.branchName(), ""));
             branchTextField.setReadOnly(true);
             formLayout.add(branchTextField);
         }
 
+        List<ExpenseType> expenseTypes = expenseTypeService.getAllByCompany(companyId);
         ComboBox<ExpenseType> typeComboBox = new ComboBox<>("Expense Type");
-        typeComboBox.setItems(expenseTypeService.getAllByCompany(companyId));
+        typeComboBox.setItems(expenseTypes);
         typeComboBox.setItemLabelGenerator(ExpenseType::getName);
-        typeComboBox.setValue(expenseTypeService.getAllByCompany(companyId)
+        typeComboBox.setValue(expenseTypes
                 .stream()
                 .filter(t -> t.getId().equals(transactionDTO.expenseTypeId()))
                 .findFirst()
@@ -883,11 +896,75 @@ public class ExpenseView extends VerticalLayout {
             recordsToDatePicker.setValue(startDate);
             endDate = startDate;
         }
-        Page<ExpenseTransactionDTO> page = expenseTransactionService.getAllByCompanyPaged(companyId, startDate, endDate, pageNumber, pageSize);
-        transactionsGrid.setItems(page.getContent());
-        pageLabel.setText("Page " + (pageNumber + 1) + " of " + page.getTotalPages());
-        prevButton.setEnabled(page.hasPrevious());
-        nextButton.setEnabled(page.hasNext());
+        KeysetDataProvider.DateRange range = new KeysetDataProvider.DateRange(startDate, endDate);
+        if (range.equals(transactionsProvider.getDateRange())) {
+            transactionsProvider.refreshAll();
+        } else {
+            transactionsProvider.setDateRange(range);
+        }
+        recordCountLabel.setText(transactionsProvider.getCount() + " records");
+        exportLink.setHref(exportResource(range));
+
+        totalRange = range;
+        periodTotal = startDate != null && endDate != null
+                ? Objects.requireNonNullElse(expenseTransactionService.getExpensesSummaryBetween(companyId, startDate, endDate)[0], BigDecimal.ZERO)
+                : null;
+        showPeriodTotal();
+    }
+
+    private void showPeriodTotal() {
+        periodTotalLabel.setText(periodTotal != null ? "Total: " + periodTotal.setScale(2, RoundingMode.HALF_UP) : "");
+    }
+
+    // Expenses saved anywhere in the company, pushed to this UI once committed
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        expensesSubscription = eventBus.subscribe(companyId, ExpensesChangedEvent.class,
+                event -> ui.access(() -> applyExpensesChange(event)));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        if (expensesSubscription != null) {
+            expensesSubscription.remove();
+            expensesSubscription = null;
+        }
+    }
+
+    private void applyExpensesChange(ExpensesChangedEvent event) {
+        if (!transactionsTab.equals(tabs.getSelectedTab()) || periodTotal == null) {
+            return;
+        }
+        for (ExpenseContributionDTO removed : event.removed()) {
+            if (inTotalRange(removed)) {
+                periodTotal = periodTotal.subtract(removed.amount());
+            }
+        }
+        for (ExpenseContributionDTO added : event.added()) {
+            if (inTotalRange(added)) {
+                periodTotal = periodTotal.add(added.amount());
+            }
+        }
+        showPeriodTotal();
+    }
+
+    private boolean inTotalRange(ExpenseContributionDTO contribution) {
+        return contribution.amount() != null
+                && !contribution.transactionDate().isBefore(totalRange.start())
+                && !contribution.transactionDate().isAfter(totalRange.end());
+    }
+
+    // Rebuilt on every filter change so the download always matches the records shown
+    private StreamResource exportResource(KeysetDataProvider.DateRange range) {
+        String fileName = "expenses-" + (range.start() != null ? range.start() : "all") + "-to-"
+                + (range.end() != null ? range.end() : LocalDate.now()) + ".csv";
+        StreamResource resource = new StreamResource(fileName,
+                (out, session) -> exportService.exportExpenses(companyId, range.start(), range.end(), out));
+        resource.setContentType("text/csv");
+        return resource;
     }
 
     private void configureTypesGrid() {
@@ -921,11 +998,20 @@ public class ExpenseView extends VerticalLayout {
     }
 
     private void configureTransactionsGrid() {
-        transactionsGrid.addColumn(ExpenseTransactionDTO::transactionDate).setHeader("Date").setWidth("120px");
-        transactionsGrid.addColumn(ExpenseTransactionDTO::expenseTypeName).setHeader("Expense Type").setWidth("150px");
-        transactionsGrid.addColumn(ExpenseTransactionDTO::amount).setHeader("Amount").setWidth("120px");
+        // Scrolls lazily; the default newest-first order seeks on (date, id) rather than using OFFSET
+        transactionsProvider = new KeysetDataProvider<>(
+                (range, afterDate, afterId, limit) -> expenseTransactionService.getPageAfter(companyId, range.start(), range.end(), afterDate, afterId, limit),
+                (range, pageRequest) -> expenseTransactionService.getAllByCompany(companyId, range.start(), range.end(), pageRequest),
+                range -> expenseTransactionService.countByCompany(companyId, range.start(), range.end()),
+                ExpenseTransactionDTO::transactionDate,
+                ExpenseTransactionDTO::id);
+        transactionsGrid.setItems(transactionsProvider);
+
+        transactionsGrid.addColumn(ExpenseTransactionDTO::transactionDate).setHeader("Date").setWidth("120px").setSortProperty(KeysetDataProvider.DATE_PROPERTY);
+        transactionsGrid.addColumn(ExpenseTransactionDTO::expenseTypeName).setHeader("Expense Type").setWidth("150px").setSortProperty("expenseType.name");
+        transactionsGrid.addColumn(ExpenseTransactionDTO::amount).setHeader("Amount").setWidth("120px").setSortProperty("amount");
         transactionsGrid.addColumn(ExpenseTransactionDTO::comment).setHeader("Comment").setWidth("200px");
-        transactionsGrid.addColumn(ExpenseTransactionDTO::branchName).setHeader("Branch").setWidth("150px");
+        transactionsGrid.addColumn(ExpenseTransactionDTO::branchName).setHeader("Branch").setWidth("150px").setSortProperty("branch.name");
         transactionsGrid.addComponentColumn(dto -> {
             HorizontalLayout actions = new HorizontalLayout();
             Button editButton = new Button("Edit");
@@ -4,6 +4,7 @@ import com.benguides.dtos.ProductCategoryDTO;
 import com.benguides.dtos.ProductDTO;
 import com.benguides.models.Product;
 import com.benguides.models.ProductCategory;
+import com.benguides.security.AuthenticatedPrincipal;
 import com.benguides.security.SecurityService;
 import com.benguides.services.CompanyService;
 import com.benguides.services.ProductCategoryService;
@@ -321,8 +322,12 @@ public class ProductCategoryAndProductView extends VerticalLayout {
                 deleteBtn.addThemeVariants(ButtonVariant.LUMO_ERROR);
                 deleteBtn.getStyle().set("color", "#FF7F11");
                 deleteBtn.addClickListener(e -> {
-                    productService.delete(dto.id());
-                    refreshProducts();
+                    try {
+                        productService.delete(dto.id());
+                        refreshProducts();
+                    } catch (Exception ex) {
+                        showErrorNotification(ex.getMessage());
+                    }
                 });
 
                 actions.add(editBtn, deleteBtn);
@@ -340,8 +345,8 @@ public class ProductCategoryAndProductView extends VerticalLayout {
         // Lazy pagination
         productGrid.setItems(query -> {
             int page = query.getPage();
-            Long companyId = securityService.getAuthenticatedUser()
-                    .map(u -> u.getCompany().getId())
+            Long companyId = securityService.getAuthenticatedPrincipal()
+                    .map(AuthenticatedPrincipal::companyId)
                     .orElseThrow();
             Page<ProductDTO> products = productService.getProductsByCompany(companyId, page, PAGE_SIZE);
             return products.getContent().stream();
@@ -392,8 +397,8 @@ public class ProductCategoryAndProductView extends VerticalLayout {
         // Lazy pagination
         categoryGrid.setItems(query -> {
             int page = query.getPage();
-            Long companyId = securityService.getAuthenticatedUser()
-                    .map(u -> u.getCompany().getId())
+            Long companyId = securityService.getAuthenticatedPrincipal()
+                    .map(AuthenticatedPrincipal::companyId)
                     .orElseThrow();
             Page<ProductCategoryDTO> categories = categoryService.getCategoriesByCompany(companyId, page, PAGE_SIZE);
             return categories.getContent().stream();
@@ -464,7 +469,7 @@ public class ProductCategoryAndProductView extends VerticalLayout {
             try {
                 ProductCategory category = dto == null ? new ProductCategory() : categoryService.findById(dto.id());
                 category.setName(nameField.getValue().trim());
-                Long companyId = securityService.getAuthenticatedUser().map(u -> u.getCompany().getId()).orElseThrow();
+                Long companyId = securityService.getAuthenticatedPrincipal().map(AuthenticatedPrincipal::companyId).orElseThrow();
                 category.setCompany(companyService.findById(companyId));
                 categoryService.save(category);
                 dialog.close();
@@ -564,8 +569,8 @@ public class ProductCategoryAndProductView extends VerticalLayout {
             try {
                 ProductCategory category = dto == null ? new ProductCategory() : categoryService.findById(dto.id());
                 category.setName(nameField.getValue().trim());
-                Long companyId = securityService.getAuthenticatedUser()
-                        .map(u -> u.getCompany().getId()).orElseThrow();
+                Long companyId = securityService.getAuthenticatedPrincipal()
+                        .map(AuthenticatedPrincipal::companyId).orElseThrow();
                 category.setCompany(companyService.findById(companyId));
                 categoryService.save(category);
                 dialog.close();
@@ -641,7 +646,7 @@ public class ProductCategoryAndProductView extends VerticalLayout {
         TextField nameField = new TextField("Product Name");
         TextField unitField = new TextField("Unit of Measurement");
 
-        Long companyId = securityService.getAuthenticatedUser().map(u -> u.getCompany().getId()).orElseThrow();
+        Long companyId = securityService.getAuthenticatedPrincipal().map(AuthenticatedPrincipal::companyId).orElseThrow();
         List<ProductCategoryDTO> categories = categoryService.getCategoriesByCompany(companyId, 0, 100).getContent();
 
         ComboBox<ProductCategoryDTO> categoryBox = new ComboBox<>("Category");
@@ -754,8 +759,8 @@ public class ProductCategoryAndProductView extends VerticalLayout {
         TextField nameField = new TextField("Product Name");
         TextField unitField = new TextField("Unit of Measurement");
 
-        Long companyId = securityService.getAuthenticatedUser()
-                .map(u -> u.getCompany().getId())
+        Long companyId = securityService.getAuthenticatedPrincipal()
+                .map(AuthenticatedPrincipal::companyId)
                 .orElseThrow();
 
         List<ProductCategoryDTO> categories = categoryService
@@ -832,7 +837,7 @@ public class ProductCategoryAndProductView extends VerticalLayout {
 
     private void updateAddProductButtonState() {
         if (!isAdmin || addProductButton == null) return;
-        Long companyId = securityService.getAuthenticatedUser().map(u -> u.getCompany().getId()).orElseThrow();
+        Long companyId = securityService.getAuthenticatedPrincipal().map(AuthenticatedPrincipal::companyId).orElseThrow();
         boolean hasCategories = !categoryService.getCategoriesByCompany(companyId, 0, 1).getContent().isEmpty();
         addProductButton.setEnabled(hasCategories);
         addProductButton.getElement().setProperty("title",
@@ -1,14 +1,25 @@
 package com.benguides.frontend.views.sales;
 
+import com.benguides.analytics.AnalyticsExecutor;
+import com.benguides.config.ReadRouting;
 import com.benguides.dtos.SaleTransactionDTO;
+import com.benguides.dtos.SalesAnalyticsSnapshot;
+import com.benguides.events.CompanyEventBus;
+import com.benguides.events.SalesChangedEvent;
+import com.benguides.frontend.data.KeysetDataProvider;
 import com.benguides.models.Branch;
 import com.benguides.models.Company;
 import com.benguides.models.Product;
 import com.benguides.models.SaleTransaction;
+import com.benguides.models.User;
 import com.benguides.security.SecurityService;
 import com.benguides.services.BranchService;
 import com.benguides.services.ProductService;
 import com.benguides.services.SaleTransactionService;
+import com.benguides.services.exports.TransactionExportService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -29,19 +40,24 @@ import com.vaadin.flow.component.textfield.BigDecimalField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.UIScope;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @PageTitle("Sales")
 @Route(value = "company-admin/sales", layout = com.benguides.frontend.layout.MainLayout.class)
@@ -60,6 +76,9 @@ public class SaleTransactionView extends VerticalLayout {
     private final ProductService productService;
     private final BranchService branchService;
     private final SecurityService securityService;
+    private final TransactionExportService exportService;
+    private final CompanyEventBus eventBus;
+    private final AnalyticsExecutor analyticsExecutor;
 
     private final Tab salesTab = new Tab("Sales");
     private final Tab analyticsTab = new Tab("Analytics");
@@ -89,16 +108,13 @@ public class SaleTransactionView extends VerticalLayout {
     private BigDecimalField product1LitresOpen, product1LitresClose, product1CashOpen, product1CashClose, product1BuyingPrice, product1SalesLitres, product1CostOfSales;
     private BigDecimalField product2LitresOpen, product2LitresClose, product2CashOpen, product2CashClose, product2BuyingPrice, product2SalesLitres, product2CostOfSales;
 
-    // For records pagination and filtering
-    private int pageNumber = 0;
-    private int pageSize = 10;
-    private ComboBox<Integer> pageSizeCombo;
-    private Button prevButton;
-    private Button nextButton;
-    private Span pageLabel;
+    // For records lazy loading and filtering
+    private KeysetDataProvider<SaleTransactionDTO> recordsProvider;
+    private Span recordCountLabel;
     private DatePicker recordsFromDatePicker;
     private DatePicker recordsToDatePicker;
     private Button filterRecordsButton;
+    private Anchor exportLink;
 
     // For analytics spans and grids
     private Span periodRevenueSpan, periodCostSpan, periodQuantitySpan, periodProfitSpan;
@@ -112,6 +128,17 @@ public class SaleTransactionView extends VerticalLayout {
     private DatePicker analyticsToDatePicker;
     private Button refreshAnalyticsButton;
 
+    // What the analytics tab shows, kept current from SalesChangedEvents instead of re-querying
+    private SalesAnalyticsSnapshot periodSnapshot;
+    private SalesAnalyticsSnapshot monthToDateSnapshot;
+    private SalesAnalyticsSnapshot allTimeSnapshot;
+    private Registration salesSubscription;
+
+    // Snapshot queries in flight; a load leaves the set once its result is on screen or it is cancelled
+    private CompletableFuture<SalesAnalyticsSnapshot> periodLoad, monthToDateLoad, allTimeLoad;
+    private final Set<CompletableFuture<SalesAnalyticsSnapshot>> pendingLoads = new HashSet<>();
+    private LocalDate periodFrom, periodTo;
+
     // Add Sale button
     private Button addSaleButton;
 
@@ -130,15 +157,22 @@ public class SaleTransactionView extends VerticalLayout {
     public SaleTransactionView(SaleTransactionService saleTransactionService,
                                ProductService productService,
                                BranchService branchService,
-                               SecurityService securityService) {
+                               SecurityService securityService,
+                               TransactionExportService exportService,
+                               CompanyEventBus eventBus,
+                               AnalyticsExecutor analyticsExecutor) {
         this.saleTransactionService = saleTransactionService;
         this.productService = productService;
         this.branchService = branchService;
         this.securityService = securityService;
+        this.exportService = exportService;
+        this.eventBus = eventBus;
+        this.analyticsExecutor = analyticsExecutor;
 
+        User currentUser = securityService.getAuthenticatedUserOrThrow();
         this.isCompanyAdmin = securityService.hasRole("ROLE_COMPANY_ADMIN");
-        this.currentCompany = securityService.getAuthenticatedUserOrThrow().getCompany();
-        this.currentBranch = securityService.getAuthenticatedUserOrThrow().getBranch();
+        this.currentCompany = currentUser.getCompany();
+        this.currentBranch = currentUser.getBranch();
         this.companyId = currentCompany.getId();
 
         this.availableProducts = loadAvailableProducts();
@@ -761,6 +795,8 @@ public class SaleTransactionView extends VerticalLayout {
                     return;
                 }
 
+                // Both products of the shift are saved together, so a validation error saves neither
+                List<SaleTransaction> readings = new ArrayList<>();
                 if (selectedProduct1 != null) {
                     if (product1BuyingPrice.getValue() == null) {
                         showError("Please enter buying price for " + selectedProduct1.getName());
@@ -772,7 +808,7 @@ public class SaleTransactionView extends VerticalLayout {
                     trans1.setCashOpeningReading(product1CashOpen.getValue());
                     trans1.setCashClosingReading(product1CashClose.getValue());
                     trans1.setBuyingPrice(product1BuyingPrice.getValue());
-                    saleTransactionService.save(trans1);
+                    readings.add(trans1);
                 }
 
                 if (selectedProduct2 != null) {
@@ -786,8 +822,9 @@ public class SaleTransactionView extends VerticalLayout {
                     trans2.setCashOpeningReading(product2CashOpen.getValue());
                     trans2.setCashClosingReading(product2CashClose.getValue());
                     trans2.setBuyingPrice(product2BuyingPrice.getValue());
-                    saleTransactionService.save(trans2);
+                    readings.add(trans2);
                 }
+                saleTransactionService.saveShiftReadings(readings);
                 showSuccess("Sales entries recorded successfully");
             }
             clearForm();
@@ -842,57 +879,39 @@ public class SaleTransactionView extends VerticalLayout {
         recordsFromDatePicker.setValue(LocalDate.now().minusDays(7));
         recordsToDatePicker = new DatePicker("To Date");
         recordsToDatePicker.setValue(LocalDate.now());
-        filterRecordsButton = new Button("Filter", e -> {
-            pageNumber = 0;
-            refreshRecords();
-        });
+        filterRecordsButton = new Button("Filter", e -> refreshRecords());
         filterRecordsButton.getStyle()
                 .set("background", "#FF7F11")
                 .set("color", "white");
 
-        filterLayout.add(recordsFromDatePicker, recordsToDatePicker, filterRecordsButton);
-
-        // Style pagination section
-        HorizontalLayout paginationLayout = new HorizontalLayout();
-        paginationLayout.setAlignItems(Alignment.BASELINE);
-        paginationLayout.setPadding(false);
-        paginationLayout.setMargin(false);
-        paginationLayout.getStyle()
+        // Streams the filtered range as CSV straight to the browser
+        Button exportButton = new Button("Export CSV");
+        exportButton.getStyle()
+                .set("background", "#0A9396")
+                .set("color", "white");
+        exportLink = new Anchor();
+        exportLink.getElement().setAttribute("download", true);
+        exportLink.add(exportButton);
+
+        filterLayout.add(recordsFromDatePicker, recordsToDatePicker, filterRecordsButton, exportLink);
+
+        // Style record count section
+        HorizontalLayout countLayout = new HorizontalLayout();
+        countLayout.setAlignItems(Alignment.BASELINE);
+        countLayout.setPadding(false);
+        countLayout.setMargin(false);
+        countLayout.getStyle()
                 .set("background", "rgba(10,147,150,0.05)")
                 .set("padding", "var(--lumo-space-m)")
                 .set("border-radius", "0.5rem")
                 .set("border", "1px solid rgba(10,147,150,0.1)");
 
-        pageSizeCombo = new ComboBox<>("Records per page");
-        pageSizeCombo.setItems(Arrays.asList(10, 20, 50, 100));
-        pageSizeCombo.setValue(10);
-        pageSizeCombo.setWidth("150px");
-        pageSizeCombo.addValueChangeListener(e -> {
-            pageSize = e.getValue();
-            pageNumber = 0;
-            refreshRecords();
-        });
-
-        prevButton = new Button("Prev", e -> {
-            if (pageNumber > 0) {
-                pageNumber--;
-                refreshRecords();
-            }
-        });
-        prevButton.getStyle().set("color", "#FF7F11");
-
-        nextButton = new Button("Next", e -> {
-            pageNumber++;
-            refreshRecords();
-        });
-        nextButton.getStyle().set("color", "#0A9396");
-
-        pageLabel = new Span();
-        pageLabel.getStyle().set("font-weight", "600");
+        recordCountLabel = new Span();
+        recordCountLabel.getStyle().set("font-weight", "600");
 
-        paginationLayout.add(pageSizeCombo, prevButton, nextButton, pageLabel);
+        countLayout.add(recordCountLabel);
 
-        recordsLayout.add(filterLayout, paginationLayout, salesGrid);
+        recordsLayout.add(filterLayout, countLayout, salesGrid);
 
         refreshRecords();
 
@@ -908,24 +927,46 @@ public class SaleTransactionView extends VerticalLayout {
                 recordsToDatePicker.setValue(startDate);
                 endDate = startDate;
             }
-            Page<SaleTransactionDTO> page = saleTransactionService.getAllByCompanyPaged(companyId, startDate, endDate, pageNumber, pageSize);
-            salesGrid.setItems(page.getContent());
-            pageLabel.setText("Page " + (pageNumber + 1) + " of " + page.getTotalPages());
-            prevButton.setEnabled(page.hasPrevious());
-            nextButton.setEnabled(page.hasNext());
+            KeysetDataProvider.DateRange range = new KeysetDataProvider.DateRange(startDate, endDate);
+            if (range.equals(recordsProvider.getDateRange())) {
+                recordsProvider.refreshAll();
+            } else {
+                recordsProvider.setDateRange(range);
+            }
+            recordCountLabel.setText(recordsProvider.getCount() + " records");
+            exportLink.setHref(exportResource(range));
         } catch (Exception e) {
             showError("Error loading records: " + e.getMessage());
         }
     }
 
+    // Rebuilt on every filter change so the download always matches the records shown
+    private StreamResource exportResource(KeysetDataProvider.DateRange range) {
+        String fileName = "sales-" + (range.start() != null ? range.start() : "all") + "-to-"
+                + (range.end() != null ? range.end() : LocalDate.now()) + ".csv";
+        StreamResource resource = new StreamResource(fileName,
+                (out, session) -> exportService.exportSales(companyId, range.start(), range.end(), out));
+        resource.setContentType("text/csv");
+        return resource;
+    }
+
     private void configureSalesGrid() {
-        salesGrid.addColumn(SaleTransactionDTO::transactionDate).setHeader("Date").setWidth("120px");
-        salesGrid.addColumn(SaleTransactionDTO::productName).setHeader("Product").setWidth("100px");
-        salesGrid.addColumn(SaleTransactionDTO::shiftSession).setHeader("Shift").setWidth("100px");
-        salesGrid.addColumn(SaleTransactionDTO::branchName).setHeader("Branch").setWidth("150px");
-        salesGrid.addColumn(SaleTransactionDTO::quantity).setHeader("Quantity (Litres)").setWidth("100px");
-        salesGrid.addColumn(SaleTransactionDTO::totalAmount).setHeader("Total Amount").setWidth("120px");
-        salesGrid.addColumn(SaleTransactionDTO::costOfSales).setHeader("Cost of Sales").setWidth("120px");
+        // Scrolls lazily; the default newest-first order seeks on (date, id) rather than using OFFSET
+        recordsProvider = new KeysetDataProvider<>(
+                (range, afterDate, afterId, limit) -> saleTransactionService.getPageAfter(companyId, range.start(), range.end(), afterDate, afterId, limit),
+                (range, pageRequest) -> saleTransactionService.getAllByCompany(companyId, range.start(), range.end(), pageRequest),
+                range -> saleTransactionService.countByCompany(companyId, range.start(), range.end()),
+                SaleTransactionDTO::transactionDate,
+                SaleTransactionDTO::id);
+        salesGrid.setItems(recordsProvider);
+
+        salesGrid.addColumn(SaleTransactionDTO::transactionDate).setHeader("Date").setWidth("120px").setSortProperty(KeysetDataProvider.DATE_PROPERTY);
+        salesGrid.addColumn(SaleTransactionDTO::productName).setHeader("Product").setWidth("100px").setSortProperty("product.name");
+        salesGrid.addColumn(SaleTransactionDTO::shiftSession).setHeader("Shift").setWidth("100px").setSortProperty("shiftSession");
+        salesGrid.addColumn(SaleTransactionDTO::branchName).setHeader("Branch").setWidth("150px").setSortProperty("branch.name");
+        salesGrid.addColumn(SaleTransactionDTO::quantity).setHeader("Quantity (Litres)").setWidth("100px").setSortProperty("quantity");
+        salesGrid.addColumn(SaleTransactionDTO::totalAmount).setHeader("Total Amount").setWidth("120px").setSortProperty("totalAmount");
+        salesGrid.addColumn(SaleTransactionDTO::costOfSales).setHeader("Cost of Sales").setWidth("120px").setSortProperty("costOfSales");
         salesGrid.addComponentColumn(dto -> {
             HorizontalLayout layout = new HorizontalLayout();
             Button editButton = new Button("Edit");
@@ -1095,28 +1136,132 @@ public class SaleTransactionView extends VerticalLayout {
         return analyticsLayout;
     }
 
+    // The three snapshots are independent queries: they run concurrently on the analytics executor and each
+    // lands on screen as soon as it completes
     private void refreshAnalytics() {
         refreshPeriodAnalytics(LocalDate.now().minusDays(7), LocalDate.now());
+        loadMonthToDate();
+        loadAllTime();
+    }
 
-        try {
-            BigDecimal[] mtdSummary = saleTransactionService.getMonthToDateCompanySalesSummary(companyId);
-            periodAnalytics(mtdSummary, mtdRevenueSpan, mtdCostSpan, mtdQuantitySpan, mtdProfitSpan);
+    private void loadMonthToDate() {
+        LocalDate today = LocalDate.now();
+        monthToDateLoad = loadSnapshot(monthToDateLoad,
+                () -> saleTransactionService.getSalesAnalyticsSnapshot(companyId, today.withDayOfMonth(1), today),
+                this::showMonthToDate, "Error loading analytics: ");
+    }
 
-            Map<String, BigDecimal[]> branchData = saleTransactionService.getSalesPerBranch(companyId);
-            List<AnalyticsData> branchList = convertToAnalyticsData(branchData);
-            branchGrid.setItems(branchList);
+    private void loadAllTime() {
+        allTimeLoad = loadSnapshot(allTimeLoad, () -> saleTransactionService.getSalesAnalyticsSnapshot(companyId),
+                this::showAllTime, "Error loading analytics: ");
+    }
 
-            Map<String, BigDecimal[]> totalProductData = saleTransactionService.getSalesPerProduct(companyId);
-            List<AnalyticsData> totalProductList = convertToAnalyticsData(totalProductData);
-            totalProductGrid.setItems(totalProductList);
+    private void loadPeriod(LocalDate from, LocalDate to) {
+        periodFrom = from;
+        periodTo = to;
+        periodLoad = loadSnapshot(periodLoad, () -> saleTransactionService.getSalesAnalyticsSnapshot(companyId, from, to),
+                this::showPeriod, "Error loading period analytics: ");
+    }
 
-            BigDecimal[] totalSummary = saleTransactionService.getCompanyTotalSalesSummary(companyId);
-            periodAnalytics(totalSummary, totalRevenueSpan, totalCostSpan, totalQuantitySpan, totalProfitSpan);
-        } catch (Exception e) {
-            showError("Error loading analytics: " + e.getMessage());
+    // Cancels the load it replaces, so a result for a range no longer asked for never reaches the screen
+    private CompletableFuture<SalesAnalyticsSnapshot> loadSnapshot(CompletableFuture<SalesAnalyticsSnapshot> previous,
+                                                                   Supplier<SalesAnalyticsSnapshot> query,
+                                                                   Consumer<SalesAnalyticsSnapshot> show,
+                                                                   String errorMessage) {
+        if (previous != null) {
+            previous.cancel(false);
+            pendingLoads.remove(previous);
+        }
+        UI ui = UI.getCurrent();
+        CompletableFuture<SalesAnalyticsSnapshot> load = analyticsExecutor.submit(companyId, query);
+        pendingLoads.add(load);
+        load.whenComplete((snapshot, error) -> {
+            if (load.isCancelled()) {
+                return;
+            }
+            ui.access(() -> {
+                if (!pendingLoads.remove(load)) {
+                    return;
+                }
+                if (error != null) {
+                    showError(errorMessage + error.getMessage());
+                } else {
+                    show.accept(snapshot);
+                }
+            });
+        });
+        return load;
+    }
+
+    private void cancelAnalyticsLoads() {
+        pendingLoads.forEach(load -> load.cancel(false));
+        pendingLoads.clear();
+    }
+
+    private void showMonthToDate(SalesAnalyticsSnapshot snapshot) {
+        monthToDateSnapshot = snapshot;
+        periodAnalytics(snapshot.total(), mtdRevenueSpan, mtdCostSpan, mtdQuantitySpan, mtdProfitSpan);
+    }
+
+    private void showAllTime(SalesAnalyticsSnapshot snapshot) {
+        allTimeSnapshot = snapshot;
+        branchGrid.setItems(convertToAnalyticsData(snapshot.branches()));
+        totalProductGrid.setItems(convertToAnalyticsData(snapshot.products()));
+        periodAnalytics(snapshot.total(), totalRevenueSpan, totalCostSpan, totalQuantitySpan, totalProfitSpan);
+    }
+
+    private void showPeriod(SalesAnalyticsSnapshot snapshot) {
+        periodSnapshot = snapshot;
+        periodAnalytics(snapshot.total(), periodRevenueSpan, periodCostSpan, periodQuantitySpan, periodProfitSpan);
+        periodBranchGrid.setItems(convertToAnalyticsData(snapshot.branches()));
+        productGrid.setItems(convertToAnalyticsData(snapshot.products()));
+    }
+
+    // Sales saved anywhere in the company, pushed to this UI once committed. A reload it causes reads from the
+    // primary, as a replica may not have the change yet.
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        salesSubscription = eventBus.subscribe(companyId, SalesChangedEvent.class,
+                event -> ui.access(() -> ReadRouting.runOnPrimary(() -> applySalesChange(event))));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        if (salesSubscription != null) {
+            salesSubscription.remove();
+            salesSubscription = null;
+        }
+        cancelAnalyticsLoads();
+    }
+
+    // Applies the change to the totals on screen; only a sale for a branch or product a snapshot has no
+    // row for yet costs a query, for that snapshot
+    private void applySalesChange(SalesChangedEvent event) {
+        if (!analyticsTab.equals(tabs.getSelectedTab()) || allTimeLoad == null) {
+            return;
+        }
+        if (periodLoad != null) {
+            applyOrReload(periodLoad, periodSnapshot, event, this::showPeriod, () -> loadPeriod(periodFrom, periodTo));
+        }
+        applyOrReload(monthToDateLoad, monthToDateSnapshot, event, this::showMonthToDate, this::loadMonthToDate);
+        applyOrReload(allTimeLoad, allTimeSnapshot, event, this::showAllTime, this::loadAllTime);
+    }
+
+    // A snapshot still loading may have been read before this change committed, so it is reloaded rather
+    // than patched
+    private void applyOrReload(CompletableFuture<SalesAnalyticsSnapshot> load, SalesAnalyticsSnapshot snapshot,
+                               SalesChangedEvent event, Consumer<SalesAnalyticsSnapshot> show, Runnable reload) {
+        if (snapshot == null || pendingLoads.contains(load)) {
+            reload.run();
+            return;
         }
+        snapshot.apply(event.removed(), event.added()).ifPresentOrElse(show, reload);
     }
 
+    // Changing the range cancels the previous period query if it has not finished
     private void refreshPeriodAnalytics(LocalDate from, LocalDate to) {
         if (from == null || to == null) {
             showError("Please select both From and To dates");
@@ -1127,21 +1272,7 @@ public class SaleTransactionView extends VerticalLayout {
             analyticsToDatePicker.setValue(from);
             to = from;
         }
-        try {
-            BigDecimal[] periodSummary = saleTransactionService.getSalesSummaryBetween(companyId, from, to);
-            periodAnalytics(periodSummary, periodRevenueSpan, periodCostSpan, periodQuantitySpan, periodProfitSpan);
-
-            Map<String, BigDecimal[]> periodBranchData = saleTransactionService.getSalesPerBranchBetween(companyId, from, to);
-            List<AnalyticsData> periodBranchList = convertToAnalyticsData(periodBranchData);
-            periodBranchGrid.setItems(periodBranchList);
-
-            Map<String, BigDecimal[]> periodProductData = saleTransactionService.getSalesPerProductBetween(companyId, from, to);
-            List<AnalyticsData> periodProductList = convertToAnalyticsData(periodProductData);
-            productGrid.setItems(periodProductList);
-
-        } catch (Exception e) {
-            showError("Error loading period analytics: " + e.getMessage());
-        }
+        loadPeriod(from, to);
     }
 
     private void periodAnalytics(BigDecimal[] periodSummary, Span periodRevenueSpan, Span periodCostSpan, Span periodQuantitySpan, Span periodProfitSpan) {
@@ -1155,6 +1286,10 @@ public class SaleTransactionView extends VerticalLayout {
         periodProfitSpan.setText(formatCurrency(periodProfit));
     }
 
+    private void periodAnalytics(SalesAnalyticsSnapshot.Aggregate total, Span revenueSpan, Span costSpan, Span quantitySpan, Span profitSpan) {
+        periodAnalytics(new BigDecimal[]{total.revenue(), total.cost(), total.quantity()}, revenueSpan, costSpan, quantitySpan, profitSpan);
+    }
+
     private Grid<AnalyticsData> createAnalyticsGrid() {
         Grid<AnalyticsData> grid = new Grid<>();
         grid.addColumn(AnalyticsData::getName).setHeader("Name").setWidth("150px");
@@ -1183,16 +1318,9 @@ public class SaleTransactionView extends VerticalLayout {
         return number != null ? number.setScale(2, BigDecimal.ROUND_HALF_UP) + " L" : "0.00 L";
     }
 
-    private List<AnalyticsData> convertToAnalyticsData(Map<String, BigDecimal[]> data) {
-        return data.entrySet().stream()
-                .map(entry -> {
-                    BigDecimal[] values = entry.getValue();
-                    BigDecimal revenue = values != null && values.length > 0 ? values[0] : BigDecimal.ZERO;
-                    BigDecimal cost = values != null && values.length > 1 ? values[1] : BigDecimal.ZERO;
-                    BigDecimal quantity = values != null && values.length > 2 ? values[2] : BigDecimal.ZERO;
-                    BigDecimal profit = revenue.subtract(cost);
-                    return new AnalyticsData(entry.getKey(), revenue, cost, quantity, profit);
-                })
+    private List<AnalyticsData> convertToAnalyticsData(List<SalesAnalyticsSnapshot.Aggregate> data) {
+        return data.stream()
+                .map(a -> new AnalyticsData(a.name(), a.revenue(), a.cost(), a.quantity(), a.profit()))
                 .toList();
     }
 
@@ -1,11 +1,14 @@
 package com.benguides.frontend.views.superadmin;
 
+import com.benguides.dtos.ImportResult;
 import com.benguides.frontend.layout.MainLayout;
 import com.benguides.models.Company;
 import com.benguides.models.User;
 import com.benguides.security.SecurityService;
 import com.benguides.services.CompanyService;
 import com.benguides.services.UserService;
+import com.benguides.services.imports.TransactionImportService;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -13,14 +16,18 @@ import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.EmailField;
 import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.validator.EmailValidator;
 import com.vaadin.flow.data.validator.RegexpValidator;
@@ -28,10 +35,17 @@ import com.vaadin.flow.data.validator.StringLengthValidator;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.RolesAllowed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Route(value = "super-admin/companies", layout = MainLayout.class)
 @RolesAllowed("ROLE_SUPER_ADMIN")
@@ -40,6 +54,8 @@ public class CompanyManagementView extends VerticalLayout {
     private final CompanyService companyService;
     private final UserService userService;
     private final SecurityService securityService;
+    private final TransactionImportService importService;
+    private final AsyncTaskExecutor taskExecutor;
 
     private Grid<Company> companyGrid;
     private Button addCompanyButton;
@@ -68,10 +84,14 @@ public class CompanyManagementView extends VerticalLayout {
 
     @Autowired
     public CompanyManagementView(CompanyService companyService, UserService userService,
-                                 SecurityService securityService) {
+                                 SecurityService securityService, TransactionImportService importService,
+                                 @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                 AsyncTaskExecutor taskExecutor) {
         this.companyService = companyService;
         this.userService = userService;
         this.securityService = securityService;
+        this.importService = importService;
+        this.taskExecutor = taskExecutor;
 
         setSizeFull();
         setPadding(true);
@@ -119,7 +139,12 @@ public class CompanyManagementView extends VerticalLayout {
             editButton.addClickListener(e -> showCompanyDialog(company));
             editButton.setTooltipText("Edit Company");
             editButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-            return editButton;
+
+            Button importButton = new Button(new Icon(VaadinIcon.UPLOAD));
+            importButton.addClickListener(e -> showImportDialog(company));
+            importButton.setTooltipText("Import Sales / Expenses");
+            importButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+            return new HorizontalLayout(editButton, importButton);
         }).setHeader("Actions").setAutoWidth(true);
 
         companyGrid.setHeight("500px");
@@ -527,6 +552,105 @@ public class CompanyManagementView extends VerticalLayout {
         Notification.show(errors.toString(), 5000, Notification.Position.MIDDLE);
     }
 
+    // Bulk import of historical sales or expenses from CSV/XLSX, run in the background with progress
+    private void showImportDialog(Company company) {
+        Dialog dialog = new Dialog();
+        dialog.setWidth("800px");
+        dialog.getElement().getStyle().set("max-width", "90vw");
+
+        H1 dialogTitle = new H1("Import into " + company.getName());
+        dialogTitle.getStyle()
+                .set("color", "var(--lumo-primary-color)")
+                .set("font-size", "1.5rem")
+                .set("margin-bottom", "1rem");
+
+        ComboBox<String> importType = new ComboBox<>("Import");
+        importType.setItems("Sales", "Expenses");
+        importType.setValue("Sales");
+
+        Span columnsHint = new Span();
+        columnsHint.getStyle().set("color", "var(--lumo-secondary-text-color)");
+        Runnable updateHint = () -> columnsHint.setText("Columns: " + String.join(", ",
+                "Sales".equals(importType.getValue())
+                        ? TransactionImportService.SALE_COLUMNS
+                        : List.of("date", "expensetype", "amount", "branch (optional)", "comment (optional)"))
+                + ". Dates as yyyy-MM-dd.");
+        updateHint.run();
+        importType.addValueChangeListener(e -> updateHint.run());
+
+        // Uploads go to a temporary file so large files are never held in memory
+        FileBuffer buffer = new FileBuffer();
+        Upload upload = new Upload(buffer);
+        upload.setAcceptedFileTypes(".csv", ".xlsx");
+        upload.setMaxFiles(1);
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+        Span status = new Span();
+
+        Grid<ImportResult.RowError> errorGrid = new Grid<>();
+        errorGrid.addColumn(ImportResult.RowError::rowNumber).setHeader("Row").setWidth("90px").setFlexGrow(0);
+        errorGrid.addColumn(ImportResult.RowError::message).setHeader("Error");
+        errorGrid.setHeight("250px");
+        errorGrid.setVisible(false);
+
+        upload.addSucceededListener(event -> {
+            UI ui = UI.getCurrent();
+            String fileName = event.getFileName();
+            boolean sales = "Sales".equals(importType.getValue());
+
+            importType.setEnabled(false);
+            upload.setVisible(false);
+            progressBar.setVisible(true);
+            errorGrid.setVisible(false);
+            status.setText("Importing " + fileName + "...");
+
+            TransactionImportService.ProgressListener listener = (read, imported, rejected) ->
+                    ui.access(() -> status.setText(read + " rows read, " + imported + " imported, " + rejected + " rejected"));
+
+            // A virtual thread per import rather than the small common pool, which blocking JDBC would exhaust
+            CompletableFuture.supplyAsync(() -> {
+                try (InputStream in = buffer.getInputStream()) {
+                    return sales
+                            ? importService.importSales(company.getId(), fileName, in, listener)
+                            : importService.importExpenses(company.getId(), fileName, in, listener);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, taskExecutor).whenComplete((result, error) -> ui.access(() -> {
+                buffer.getFileData().getFile().delete();
+                progressBar.setVisible(false);
+                importType.setEnabled(true);
+                upload.clearFileList();
+                upload.setVisible(true);
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    status.setText("Import failed: " + cause.getMessage());
+                    return;
+                }
+                status.setText(result.rowsImported() + " of " + result.rowsRead() + " rows imported, "
+                        + result.errorCount() + " rejected");
+                errorGrid.setItems(result.errors());
+                errorGrid.setVisible(!result.errors().isEmpty());
+            }));
+        });
+
+        Button closeButton = new Button("Close", e -> dialog.close());
+        closeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        HorizontalLayout buttons = new HorizontalLayout(closeButton);
+        buttons.setWidthFull();
+        buttons.setJustifyContentMode(JustifyContentMode.END);
+
+        VerticalLayout dialogLayout = new VerticalLayout(dialogTitle, importType, columnsHint, upload,
+                progressBar, status, errorGrid, buttons);
+        dialogLayout.setSpacing(true);
+        dialogLayout.setPadding(true);
+
+        dialog.add(dialogLayout);
+        dialog.open();
+    }
+
     private void loadCompanies() {
         companyGrid.setItems(companyService.getAllCompanies());
     }
@@ -216,7 +216,8 @@ public class SuperAdminRolesAndPermissionView extends VerticalLayout {
     }
 
     private void onRoleSelected(Role role) {
-        this.selectedRole = role;
+        // Permission toggles edit the role in place, so work on a copy rather than the cached grid item
+        this.selectedRole = roleService.findByName(role.getName()).orElse(role);
         selectedRoleLabel.setText(role.getDisplayName() + " (" + role.getName() + ")");
         saveAllButton.setEnabled(false);
 
@@ -340,10 +341,11 @@ public class SuperAdminRolesAndPermissionView extends VerticalLayout {
         Checkbox resignable = new Checkbox("Resignable", role.isResignable());
 
         Button save = new Button("Save", e -> {
-            role.setDisplayName(displayName.getValue());
-            role.setRevokable(revokable.getValue());
-            role.setResignable(resignable.getValue());
-            roleService.save(role);
+            Role toSave = roleService.findByName(role.getName()).orElse(role);
+            toSave.setDisplayName(displayName.getValue());
+            toSave.setRevokable(revokable.getValue());
+            toSave.setResignable(resignable.getValue());
+            roleService.save(toSave);
             Notification.show("Role updated successfully!");
             loadRoles();
             dialog.close();
@@ -0,0 +1,40 @@
+package com.benguides.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.BaseSessionEventListener;
+
+// Per-session JDBC statement and second-level cache counts. Hibernate creates one per session because it is
+// registered through hibernate.session.events.auto; with open-in-view a session spans one web request.
+// Meters go to the global registry, which Spring Boot adds its registries to.
+public class HibernateSessionMetrics extends BaseSessionEventListener {
+
+    private long statements;
+    private long cacheHits;
+    private long cacheMisses;
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statements++;
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    @Override
+    public void end() {
+        Metrics.summary("branchone.hibernate.session.statements").record(statements);
+        Metrics.summary("branchone.hibernate.session.cache", "result", "hit").record(cacheHits);
+        Metrics.summary("branchone.hibernate.session.cache", "result", "miss").record(cacheMisses);
+    }
+}
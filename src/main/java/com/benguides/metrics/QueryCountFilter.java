@@ -0,0 +1,59 @@
+package com.benguides.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Counts the SQL statements of every HTTP request, Vaadin round trips included, and logs a warning when a request
+// runs more than the threshold or repeats one statement shape more than repeatThreshold times (a likely N+1)
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@EnableConfigurationProperties(QueryCountProperties.class)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private final QueryCountProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (QueryCounter.Scope scope = QueryCounter.start()) {
+            chain.doFilter(request, response);
+            if (scope.count() > properties.warnThreshold()) {
+                log.warn("{} ran {} SQL statements", describe(request), scope.count());
+            }
+            for (Map.Entry<String, Integer> repeated : scope.repeatedMoreThan(properties.repeatThreshold())) {
+                log.warn("Possible N+1 in {}: {} x {}", describe(request), repeated.getValue(), abbreviate(repeated.getKey()));
+            }
+        }
+    }
+
+    private String describe(HttpServletRequest request) {
+        Object view = request.getAttribute(VaadinRequestMetrics.VIEW_ATTRIBUTE);
+        String target = request.getMethod() + " " + request.getRequestURI();
+        return view != null ? target + " [" + view + "]" : target;
+    }
+
+    private String abbreviate(String sql) {
+        return sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql;
+    }
+}
@@ -0,0 +1,12 @@
+package com.benguides.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Limits above which QueryCountFilter logs a request; see application.properties
+@ConfigurationProperties(prefix = "branchone.query-count")
+public record QueryCountProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") int warnThreshold,
+        @DefaultValue("5") int repeatThreshold) {
+}
@@ -0,0 +1,105 @@
+package com.benguides.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a scope is open. Scopes nest; a
+// statement counts towards every open scope. QueryCountFilter opens one per request, and tests can wrap a call
+// in assertQueryCount/assertMaxQueryCount. Statements are also grouped by shape (literals and IN lists folded),
+// so the same query repeated per row stands out.
+public final class QueryCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private QueryCounter() {
+    }
+
+    public static Scope start() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        String shape = shape(sql);
+        for (; scope != null; scope = scope.parent) {
+            scope.count++;
+            scope.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    public static void assertQueryCount(int expected, Runnable action) {
+        try (Scope scope = start()) {
+            action.run();
+            if (scope.count() != expected) {
+                throw new AssertionError("Expected " + expected + " SQL statements but ran " + scope.count() + scope.describe());
+            }
+        }
+    }
+
+    public static <T> T assertMaxQueryCount(int max, Supplier<T> action) {
+        try (Scope scope = start()) {
+            T result = action.get();
+            if (scope.count() > max) {
+                throw new AssertionError("Expected at most " + max + " SQL statements but ran " + scope.count() + scope.describe());
+            }
+            return result;
+        }
+    }
+
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?...)");
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // Statement shapes that ran more than the given number of times, most frequent first
+        public List<Map.Entry<String, Integer>> repeatedMoreThan(int times) {
+            return shapes.entrySet().stream()
+                    .filter(entry -> entry.getValue() > times)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .toList();
+        }
+
+        private String describe() {
+            return shapes.entrySet().stream()
+                    .map(entry -> System.lineSeparator() + "  " + entry.getValue() + " x " + entry.getKey())
+                    .collect(Collectors.joining());
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.benguides.metrics;
+
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinRequestInterceptor;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Times every request the Vaadin servlet handles as branchone.vaadin.requests{view, type, exception}, where view is
+// the route target of the UI that handled it (a UIDL round trip from the sales view is tagged SaleTransactionView)
+@Component
+@RequiredArgsConstructor
+public class VaadinRequestMetrics implements VaadinServiceInitListener, VaadinRequestInterceptor {
+
+    // Request attribute carrying the view name to the servlet filters that run after Vaadin
+    public static final String VIEW_ATTRIBUTE = VaadinRequestMetrics.class.getName() + ".view";
+    private static final String START_ATTRIBUTE = VaadinRequestMetrics.class.getName() + ".start";
+    private static final String EXCEPTION_ATTRIBUTE = VaadinRequestMetrics.class.getName() + ".exception";
+    // Anything else in v-r is counted as "other" so clients cannot create new time series
+    private static final Set<String> REQUEST_TYPES = Set.of(ApplicationConstants.REQUEST_TYPE_UIDL,
+            ApplicationConstants.REQUEST_TYPE_HEARTBEAT, ApplicationConstants.REQUEST_TYPE_PUSH,
+            ApplicationConstants.REQUEST_TYPE_INIT);
+
+    private final transient MeterRegistry meterRegistry;
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.addVaadinRequestInterceptor(this);
+    }
+
+    @Override
+    public void requestStart(VaadinRequest request, VaadinResponse response) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void handleException(VaadinRequest request, VaadinResponse response, VaadinSession session, Exception exception) {
+        request.setAttribute(EXCEPTION_ATTRIBUTE, exception.getClass().getSimpleName());
+    }
+
+    // Runs before Vaadin clears its thread locals, so UI.getCurrent() is still the UI of this request
+    @Override
+    public void requestEnd(VaadinRequest request, VaadinResponse response, VaadinSession session) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        String view = view();
+        request.setAttribute(VIEW_ATTRIBUTE, view);
+        Object exception = request.getAttribute(EXCEPTION_ATTRIBUTE);
+        Timer.builder("branchone.vaadin.requests")
+                .description("Requests handled by the Vaadin servlet")
+                .tag("view", view)
+                .tag("type", type(request))
+                .tag("exception", exception != null ? exception.toString() : "none")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String view() {
+        UI ui = UI.getCurrent();
+        if (ui == null) {
+            return "none";
+        }
+        List<HasElement> chain = ui.getInternals().getActiveRouterTargetsChain();
+        return chain.isEmpty() ? "none" : chain.get(0).getClass().getSimpleName();
+    }
+
+    private static String type(VaadinRequest request) {
+        String type = request.getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER);
+        if (type == null) {
+            return "page";
+        }
+        return REQUEST_TYPES.contains(type) ? type : "other";
+    }
+}
@@ -0,0 +1,18 @@
+package com.benguides.models;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Id handed out from a block of BlockIdGenerator.BLOCK_SIZE ids reserved in id_blocks; see BlockIdGenerator
+@IdGeneratorType(BlockIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface BlockId {
+
+    // Table the ids are for, checked once per start for ids written without the generator
+    String table();
+}
@@ -0,0 +1,129 @@
+package com.benguides.models;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out ids in blocks so inserts can be JDBC-batched: block n covers n * BLOCK_SIZE .. n * BLOCK_SIZE + 49.
+// A block is a row inserted into id_blocks, numbered by its auto_increment, on the writing session's own
+// connection. Hibernate's table generator takes a second pooled connection for that instead, which stalls
+// for connection-timeout once the pool is exhausted. The auto_increment lock is released at the end of the
+// statement and a number is never handed out twice, even when the writing transaction rolls back.
+// The first block after each start is checked against the ids already in the table, so rows written
+// without the generator (ddl-auto=update on an existing database, bulk loads) are skipped past.
+public class BlockIdGenerator implements IdentifierGenerator {
+
+    public static final int BLOCK_SIZE = 50;
+
+    // Moves the counter to a given block unless it is already past it; for code that writes explicit ids
+    public static final String RESERVE_BLOCK_SQL = "insert into id_blocks (block, table_name) select ?, ? from dual "
+            + "where ? > (select coalesce(max(block), 0) from id_blocks)";
+
+    private static final String NEXT_BLOCK_SQL = "insert into id_blocks (table_name) values (?)";
+
+    private final String table;
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean checkedExistingIds;
+    private long next;
+    private long end;
+
+    public BlockIdGenerator(BlockId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.table = config.table();
+    }
+
+    // First block whose ids are all above the given id
+    public static long blockAfter(long id) {
+        return id / BLOCK_SIZE + 1;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        lock.lock();
+        try {
+            if (next == end) {
+                next = allocateBlock(session) * BLOCK_SIZE;
+                end = next + BLOCK_SIZE;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long allocateBlock(SharedSessionContractImplementor session) {
+        long block = nextBlock(session);
+        if (!checkedExistingIds) {
+            long first = blockAfter(highestId(session));
+            if (block < first) {
+                reserveBlock(session, first);
+                block = nextBlock(session);
+                if (block < first) {
+                    throw new IllegalStateException("id_blocks did not move past the ids already in " + table
+                            + "; set its auto_increment to at least " + first);
+                }
+            }
+            checkedExistingIds = true;
+        }
+        return block;
+    }
+
+    private long nextBlock(SharedSessionContractImplementor session) {
+        return execute(session, NEXT_BLOCK_SQL, PreparedStatement.RETURN_GENERATED_KEYS, statement -> {
+            statement.setString(1, table);
+            session.getJdbcCoordinator().getResultSetReturn().executeUpdate(statement, NEXT_BLOCK_SQL);
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        });
+    }
+
+    private void reserveBlock(SharedSessionContractImplementor session, long block) {
+        try {
+            execute(session, RESERVE_BLOCK_SQL, PreparedStatement.NO_GENERATED_KEYS, statement -> {
+                statement.setLong(1, block);
+                statement.setString(2, table);
+                statement.setLong(3, block);
+                return (long) session.getJdbcCoordinator().getResultSetReturn().executeUpdate(statement, RESERVE_BLOCK_SQL);
+            });
+        } catch (ConstraintViolationException e) {
+            // Another instance reserved the same block first, which moves the counter just as well
+        }
+    }
+
+    private long highestId(SharedSessionContractImplementor session) {
+        String sql = "select coalesce(max(id), 0) from " + table;
+        return execute(session, sql, PreparedStatement.NO_GENERATED_KEYS, statement -> {
+            try (ResultSet rows = session.getJdbcCoordinator().getResultSetReturn().extract(statement, sql)) {
+                rows.next();
+                return rows.getLong(1);
+            }
+        });
+    }
+
+    private static long execute(SharedSessionContractImplementor session, String sql, int generatedKeys, Work work) {
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql, generatedKeys);
+        try {
+            return work.run(statement);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not allocate an id block", sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        long run(PreparedStatement statement) throws SQLException;
+    }
+}
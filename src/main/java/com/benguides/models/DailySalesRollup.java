@@ -0,0 +1,60 @@
+package com.benguides.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales totals per company, branch, product, day and shift.
+ * Maintained by {@link com.benguides.services.DailySalesRollupService} in the same
+ * transaction as every sale write, so dashboards never have to scan sale_transactions.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "daily_sales_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_sales_rollup_key",
+                columnNames = {"company_id", "branch_id", "product_id", "transaction_date", "shift_session"}),
+        indexes = @Index(name = "idx_daily_sales_rollup_company_date", columnList = "company_id, transaction_date"))
+public class DailySalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "company_id")
+    private Company company;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "branch_id")
+    private Branch branch;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    @Column(nullable = false)
+    private LocalDate transactionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private SaleTransaction.ShiftSession shiftSession;
+
+    @Column(precision = 16, scale = 2, nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(precision = 16, scale = 2, nullable = false)
+    private BigDecimal costOfSales = BigDecimal.ZERO;
+
+    @Column(precision = 14, scale = 3, nullable = false)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    // Number of sale rows folded into this bucket; the row is removed when it drops to zero
+    @Column(nullable = false)
+    private long transactionCount = 0;
+}
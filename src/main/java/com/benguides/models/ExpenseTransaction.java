@@ -15,9 +15,15 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_expense_tx_company_date", columnList = "company_id, transaction_date, branch_id, expense_type_id"),
+        @Index(name = "idx_expense_tx_branch_date", columnList = "branch_id, transaction_date"),
+        @Index(name = "idx_expense_tx_company_date_id", columnList = "company_id, transaction_date, id")
+})
 public class ExpenseTransaction {
+    // Ids reserved in blocks (BlockIdGenerator) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockId(table = "expense_transaction")
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,22 @@
+package com.benguides.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A block of ids reserved by BlockIdGenerator. Only mapped so ddl-auto creates the table (Flyway V5 in prod);
+// the generator writes it with plain SQL on the session's connection.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "id_blocks")
+public class IdBlock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long block;
+
+    @Column(nullable = false, length = 64)
+    private String tableName;
+}
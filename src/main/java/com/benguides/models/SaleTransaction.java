@@ -11,16 +11,23 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "sale_transactions")
+@Table(name = "sale_transactions", indexes = {
+        @Index(name = "idx_sale_tx_company_date", columnList = "company_id, transaction_date, branch_id, product_id"),
+        @Index(name = "idx_sale_tx_branch_date", columnList = "branch_id, transaction_date"),
+        @Index(name = "idx_sale_tx_company_date_id", columnList = "company_id, transaction_date, id")
+})
 @EqualsAndHashCode(of = "id")
 public class SaleTransaction {
 
+    // Ids reserved in blocks (BlockIdGenerator) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockId(table = "sale_transactions")
     private Long id;
 
     @Column(nullable = false)
@@ -100,6 +107,28 @@ public class SaleTransaction {
         return cashClosingReading.subtract(cashOpeningReading).max(BigDecimal.ZERO);
     }
 
+    // Readings that onSave() would silently clamp to zero; empty when the row is usable
+    @Transient
+    public List<String> getReadingProblems() {
+        List<String> problems = new ArrayList<>();
+        checkReadings("Litres", litresOpeningReading, litresClosingReading, problems);
+        checkReadings("Cash", cashOpeningReading, cashClosingReading, problems);
+        if (buyingPrice == null || buyingPrice.signum() < 0) {
+            problems.add("Buying price must be zero or more");
+        }
+        return problems;
+    }
+
+    private static void checkReadings(String label, BigDecimal opening, BigDecimal closing, List<String> problems) {
+        if (opening == null || closing == null) {
+            problems.add(label + " opening and closing readings are required");
+        } else if (opening.signum() < 0 || closing.signum() < 0) {
+            problems.add(label + " readings cannot be negative");
+        } else if (closing.compareTo(opening) < 0) {
+            problems.add(label + " closing reading is below the opening reading");
+        }
+    }
+
     @PrePersist
     @PreUpdate
     private void onSave() {
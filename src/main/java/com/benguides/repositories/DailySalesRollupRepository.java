@@ -0,0 +1,136 @@
+package com.benguides.repositories;
+
+import com.benguides.models.DailySalesRollup;
+import com.benguides.models.SaleTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    // Adds the deltas to a bucket in one statement, creating it when missing: ON DUPLICATE KEY UPDATE on
+    // MySQL, MERGE on H2. A read-then-insert could deadlock on gap locks or race on uk_daily_sales_rollup_key.
+    @Modifying
+    @Query("INSERT INTO DailySalesRollup (company.id, branch.id, product.id, transactionDate, shiftSession, " +
+            "totalAmount, costOfSales, quantity, transactionCount) " +
+            "VALUES (:companyId, :branchId, :productId, :date, :shift, :totalAmount, :costOfSales, :quantity, :count) " +
+            "ON CONFLICT (company, branch, product, transactionDate, shiftSession) DO UPDATE SET " +
+            "totalAmount = totalAmount + excluded.totalAmount, costOfSales = costOfSales + excluded.costOfSales, " +
+            "quantity = quantity + excluded.quantity, transactionCount = transactionCount + excluded.transactionCount")
+    int upsert(@Param("companyId") Long companyId,
+               @Param("branchId") Long branchId,
+               @Param("productId") Long productId,
+               @Param("date") LocalDate date,
+               @Param("shift") SaleTransaction.ShiftSession shift,
+               @Param("totalAmount") BigDecimal totalAmount,
+               @Param("costOfSales") BigDecimal costOfSales,
+               @Param("quantity") BigDecimal quantity,
+               @Param("count") long count);
+
+    // Drops a bucket whose last sale was removed
+    @Modifying
+    @Query("DELETE FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.branch.id = :branchId " +
+            "AND r.product.id = :productId AND r.transactionDate = :date AND r.shiftSession = :shift " +
+            "AND r.transactionCount <= 0")
+    int deleteIfEmpty(@Param("companyId") Long companyId,
+                      @Param("branchId") Long branchId,
+                      @Param("productId") Long productId,
+                      @Param("date") LocalDate date,
+                      @Param("shift") SaleTransaction.ShiftSession shift);
+
+    @Modifying
+    @Query("DELETE FROM DailySalesRollup r WHERE r.company.id = :companyId")
+    int deleteByCompanyId(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query("INSERT INTO DailySalesRollup (company, branch, product, transactionDate, shiftSession, " +
+            "totalAmount, costOfSales, quantity, transactionCount) " +
+            "SELECT s.company, s.branch, s.product, s.transactionDate, s.shiftSession, " +
+            "SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity), COUNT(s) " +
+            "FROM SaleTransaction s WHERE s.company.id = :companyId " +
+            "GROUP BY s.company, s.branch, s.product, s.transactionDate, s.shiftSession")
+    int insertFromSaleTransactions(@Param("companyId") Long companyId);
+
+    // Branch x product totals (all time), folded into branch, product and company totals by the caller
+    @Query("SELECT r.branch.id, r.branch.name, r.product.id, r.product.name, " +
+            "SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId " +
+            "GROUP BY r.branch.id, r.branch.name, r.product.id, r.product.name")
+    List<Object[]> getBranchProductTotals(@Param("companyId") Long companyId);
+
+    // Branch x product totals between dates
+    @Query("SELECT r.branch.id, r.branch.name, r.product.id, r.product.name, " +
+            "SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate BETWEEN :start AND :end " +
+            "GROUP BY r.branch.id, r.branch.name, r.product.id, r.product.name")
+    List<Object[]> getBranchProductTotalsBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Profit and loss inputs per branch, product and day in one pass over the rollup and the expenses:
+    // revenue and cost of sales from sales rows, expenses from expense rows, which have no product.
+    // Grouped by id; expenses recorded without a branch come back with a null branch.
+    @Query("SELECT x.branchId, b.name, x.productId, p.name, x.txDate, SUM(x.revenue), SUM(x.cost), SUM(x.expenses) " +
+            "FROM (" +
+            "SELECT r.branch.id AS branchId, r.product.id AS productId, r.transactionDate AS txDate, " +
+            "r.totalAmount AS revenue, r.costOfSales AS cost, CAST(0 AS BigDecimal) AS expenses " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate BETWEEN :start AND :end " +
+            "UNION ALL " +
+            "SELECT e.branch.id, CAST(NULL AS Long), e.transactionDate, CAST(0 AS BigDecimal), CAST(0 AS BigDecimal), e.amount " +
+            "FROM ExpenseTransaction e WHERE e.company.id = :companyId AND e.transactionDate BETWEEN :start AND :end" +
+            ") x " +
+            "LEFT JOIN Branch b ON b.id = x.branchId " +
+            "LEFT JOIN Product p ON p.id = x.productId " +
+            "GROUP BY x.branchId, b.name, x.productId, p.name, x.txDate")
+    List<Object[]> getProfitAndLossRowsBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // For sales per branch (all time)
+    @Query("SELECT r.branch.name, SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId GROUP BY r.branch.name")
+    List<Object[]> getSalesPerBranch(@Param("companyId") Long companyId);
+
+    // For sales per branch between dates
+    @Query("SELECT r.branch.name, SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate BETWEEN :start AND :end GROUP BY r.branch.name")
+    List<Object[]> getSalesPerBranchBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // For daily sales per product
+    @Query("SELECT r.product.name, SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate = :date GROUP BY r.product.name")
+    List<Object[]> getDailySalesPerProduct(@Param("companyId") Long companyId, @Param("date") LocalDate date);
+
+    // For daily sales per branch
+    @Query("SELECT r.branch.name, SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate = :date GROUP BY r.branch.name")
+    List<Object[]> getDailySalesPerBranch(@Param("companyId") Long companyId, @Param("date") LocalDate date);
+
+    // For sales per product (all time)
+    @Query("SELECT r.product.name, SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId GROUP BY r.product.name")
+    List<Object[]> getSalesPerProduct(@Param("companyId") Long companyId);
+
+    // For sales per product between dates
+    @Query("SELECT r.product.name, SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate BETWEEN :start AND :end GROUP BY r.product.name")
+    List<Object[]> getSalesPerProductBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // For company daily sales summary
+    @Query("SELECT SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate = :date")
+    Object[] getDailyCompanySalesSummary(@Param("companyId") Long companyId, @Param("date") LocalDate date);
+
+    // For company total sales summary (all time)
+    @Query("SELECT SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId")
+    Object[] getCompanyTotalSalesSummary(@Param("companyId") Long companyId);
+
+    // For sales summary between dates
+    @Query("SELECT SUM(r.totalAmount), SUM(r.costOfSales), SUM(r.quantity) " +
+            "FROM DailySalesRollup r WHERE r.company.id = :companyId AND r.transactionDate BETWEEN :start AND :end")
+    Object[] getSalesSummaryBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+}
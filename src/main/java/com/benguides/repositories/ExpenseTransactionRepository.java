@@ -1,16 +1,25 @@
 package com.benguides.repositories;
 
+import com.benguides.dtos.ExpenseContributionDTO;
 import com.benguides.dtos.ExpenseTransactionDTO;
 import com.benguides.models.ExpenseTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseTransactionRepository extends JpaRepository<ExpenseTransaction, Long> {
@@ -18,15 +27,15 @@ public interface ExpenseTransactionRepository extends JpaRepository<ExpenseTrans
     @Query("SELECT new com.benguides.dtos.ExpenseTransactionDTO(" +
             "e.id, e.transactionDate, e.comment, e.amount, " +
             "e.expenseType.name, e.expenseType.id, " +
-            "e.branch.name, e.branch.id, e.createdAt) " +
-            "FROM ExpenseTransaction e WHERE e.company.id = :companyId")
+            "b.name, b.id, e.createdAt) " +
+            "FROM ExpenseTransaction e LEFT JOIN e.branch b WHERE e.company.id = :companyId")
     List<ExpenseTransactionDTO> findByCompanyId(@Param("companyId") Long companyId);
 
     @Query("SELECT new com.benguides.dtos.ExpenseTransactionDTO(" +
             "e.id, e.transactionDate, e.comment, e.amount, " +
             "e.expenseType.name, e.expenseType.id, " +
-            "e.branch.name, e.branch.id, e.createdAt) " +
-            "FROM ExpenseTransaction e WHERE e.company.id = :companyId " +
+            "b.name, b.id, e.createdAt) " +
+            "FROM ExpenseTransaction e LEFT JOIN e.branch b WHERE e.company.id = :companyId " +
             "AND (:startDate IS NULL OR e.transactionDate >= :startDate) " +
             "AND (:endDate IS NULL OR e.transactionDate <= :endDate)")
     Page<ExpenseTransactionDTO> findByCompanyIdAndDateRangePaged(@Param("companyId") Long companyId,
@@ -34,6 +43,87 @@ public interface ExpenseTransactionRepository extends JpaRepository<ExpenseTrans
                                                                  @Param("endDate") LocalDate endDate,
                                                                  Pageable pageable);
 
+    // Same filter as above without the COUNT query, for callers that already know the total
+    @Query("SELECT new com.benguides.dtos.ExpenseTransactionDTO(" +
+            "e.id, e.transactionDate, e.comment, e.amount, " +
+            "e.expenseType.name, e.expenseType.id, " +
+            "b.name, b.id, e.createdAt) " +
+            "FROM ExpenseTransaction e LEFT JOIN e.branch b WHERE e.company.id = :companyId " +
+            "AND (:startDate IS NULL OR e.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR e.transactionDate <= :endDate)")
+    List<ExpenseTransactionDTO> findByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate,
+                                                            Pageable pageable);
+
+    // Keyset (seek) pagination, newest first on (transaction_date, id)
+    @Query("SELECT new com.benguides.dtos.ExpenseTransactionDTO(" +
+            "e.id, e.transactionDate, e.comment, e.amount, " +
+            "e.expenseType.name, e.expenseType.id, " +
+            "b.name, b.id, e.createdAt) " +
+            "FROM ExpenseTransaction e LEFT JOIN e.branch b WHERE e.company.id = :companyId " +
+            "AND (:startDate IS NULL OR e.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR e.transactionDate <= :endDate) " +
+            "ORDER BY e.transactionDate DESC, e.id DESC")
+    List<ExpenseTransactionDTO> findLatestByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate,
+                                                                  Limit limit);
+
+    // Rows strictly after the (afterDate, afterId) key in the same order
+    @Query("SELECT new com.benguides.dtos.ExpenseTransactionDTO(" +
+            "e.id, e.transactionDate, e.comment, e.amount, " +
+            "e.expenseType.name, e.expenseType.id, " +
+            "b.name, b.id, e.createdAt) " +
+            "FROM ExpenseTransaction e LEFT JOIN e.branch b WHERE e.company.id = :companyId " +
+            "AND (:startDate IS NULL OR e.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR e.transactionDate <= :endDate) " +
+            "AND e.transactionDate <= :afterDate " +
+            "AND (e.transactionDate < :afterDate OR e.id < :afterId) " +
+            "ORDER BY e.transactionDate DESC, e.id DESC")
+    List<ExpenseTransactionDTO> findByCompanyIdAndDateRangeAfter(@Param("companyId") Long companyId,
+                                                                 @Param("startDate") LocalDate startDate,
+                                                                 @Param("endDate") LocalDate endDate,
+                                                                 @Param("afterDate") LocalDate afterDate,
+                                                                 @Param("afterId") Long afterId,
+                                                                 Limit limit);
+
+    @Query("SELECT COUNT(e) FROM ExpenseTransaction e WHERE e.company.id = :companyId " +
+            "AND (:startDate IS NULL OR e.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR e.transactionDate <= :endDate)")
+    long countByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    // Oldest first for export, including company-wide expenses without a branch; rows are read through
+    // a cursor in fetch-size batches, so the caller must consume and close the stream inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.benguides.dtos.ExpenseTransactionDTO(" +
+            "e.id, e.transactionDate, e.comment, e.amount, " +
+            "e.expenseType.name, e.expenseType.id, " +
+            "b.name, b.id, e.createdAt) " +
+            "FROM ExpenseTransaction e LEFT JOIN e.branch b WHERE e.company.id = :companyId " +
+            "AND (:startDate IS NULL OR e.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR e.transactionDate <= :endDate) " +
+            "ORDER BY e.transactionDate, e.id")
+    Stream<ExpenseTransactionDTO> streamByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                                                @Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
+    // Keyset window, newest first: start from ScrollPosition.keyset() and continue from
+    // window.positionAt(window.size() - 1); latency does not grow with depth like OFFSET does
+    default Window<ExpenseTransactionDTO> scrollByCompanyIdAndDateRange(Long companyId, LocalDate startDate, LocalDate endDate,
+                                                                        KeysetScrollPosition position, int limit) {
+        return TransactionKeyset.scroll(position, limit,
+                (afterDate, afterId, max) -> afterDate == null || afterId == null
+                        ? findLatestByCompanyIdAndDateRange(companyId, startDate, endDate, max)
+                        : findByCompanyIdAndDateRangeAfter(companyId, startDate, endDate, afterDate, afterId, max),
+                ExpenseTransactionDTO::transactionDate, ExpenseTransactionDTO::id);
+    }
+
     // For expenses per type (all time)
     @Query("SELECT e.expenseType.name, SUM(e.amount) " +
             "FROM ExpenseTransaction e WHERE e.company.id = :companyId GROUP BY e.expenseType.name")
@@ -63,4 +153,16 @@ public interface ExpenseTransactionRepository extends JpaRepository<ExpenseTrans
     @Query("SELECT SUM(e.amount) " +
             "FROM ExpenseTransaction e WHERE e.company.id = :companyId AND e.transactionDate BETWEEN :start AND :end")
     Object[] getExpensesSummaryBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
-}
\ No newline at end of file
+
+    // Guards for deleting an expense type or branch; the partitioned MySQL tables have no foreign keys to do it
+    boolean existsByExpenseTypeId(Long expenseTypeId);
+
+    boolean existsByBranchId(Long branchId);
+
+    // Persisted state of an expense, read without flushing pending changes so an edit can be backed out of live totals
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT new com.benguides.dtos.ExpenseContributionDTO(" +
+            "e.company.id, e.branch.id, e.expenseType.id, e.transactionDate, e.amount) " +
+            "FROM ExpenseTransaction e WHERE e.id = :id")
+    Optional<ExpenseContributionDTO> findContributionById(@Param("id") Long id);
+}
@@ -2,8 +2,11 @@ package com.benguides.repositories;
 
 import com.benguides.dtos.ExpenseTypeDTO;
 import com.benguides.models.ExpenseType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,11 +16,13 @@ import java.util.Optional;
 @Repository
 public interface ExpenseTypeRepository extends JpaRepository<ExpenseType, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT new com.benguides.dtos.ExpenseTypeDTO(" +
             "et.id, et.name, et.createdAt, et.updatedAt) " +
             "FROM ExpenseType et WHERE et.company.id = :companyId")
     List<ExpenseTypeDTO> findByCompanyId(@Param("companyId") Long companyId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ExpenseType> findAllByCompanyId(@Param("companyId") Long companyId);
 
     Optional<ExpenseType> findByCompanyIdAndName(Long companyId, String name);
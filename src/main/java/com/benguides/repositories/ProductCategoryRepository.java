@@ -2,11 +2,14 @@ package com.benguides.repositories;
 
 import aj.org.objectweb.asm.commons.Remapper;
 import com.benguides.models.ProductCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface ProductCategoryRepository extends JpaRepository<ProductCategory, Long> {
@@ -16,6 +19,7 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
 
     boolean existsByNameAndCompanyId(String name, Long companyId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM ProductCategory c JOIN FETCH c.company WHERE c.company.id = :companyId")
     Page<ProductCategory> findByCompanyIdWithCompany(@Param("companyId") Long companyId, Pageable pageable);
 }
\ No newline at end of file
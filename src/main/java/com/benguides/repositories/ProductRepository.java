@@ -1,12 +1,16 @@
 package com.benguides.repositories;
 
 import com.benguides.models.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -14,8 +18,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.company.id = :companyId")
     Page<Product> findByCompanyId(Long companyId, Pageable pageable);
 
-    @Query("SELECT p FROM Product p JOIN FETCH p.productCategory JOIN FETCH p.company WHERE p.company.id = :companyId")
-    Page<Product> findByCompanyIdWithCategoryAndCompany(@Param("companyId") Long companyId, Pageable pageable);
+    @Query("SELECT p FROM Product p JOIN FETCH p.productCategory JOIN FETCH p.company WHERE p.company.id = :companyId ORDER BY p.id")
+    List<Product> findAllByCompanyIdWithCategoryAndCompany(@Param("companyId") Long companyId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findAllByCompanyId(Long companyId);
 
     @Query("SELECT p FROM Product p JOIN FETCH p.productCategory JOIN FETCH p.company WHERE p.id = :id")
     Optional<Product> findByIdWithCategoryAndCompany(@Param("id") Long id);
@@ -1,16 +1,25 @@
 package com.benguides.repositories;
 
+import com.benguides.dtos.SaleContributionDTO;
 import com.benguides.dtos.SaleTransactionDTO;
 import com.benguides.models.SaleTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleTransactionRepository extends JpaRepository<SaleTransaction, Long> {
@@ -36,6 +45,91 @@ public interface SaleTransactionRepository extends JpaRepository<SaleTransaction
                                                               @Param("endDate") LocalDate endDate,
                                                               Pageable pageable);
 
+    // Same filter as above without the COUNT query, for callers that already know the total
+    @Query("SELECT new com.benguides.dtos.SaleTransactionDTO(" +
+            "s.id, s.transactionDate, s.litresOpeningReading, s.litresClosingReading, " +
+            "s.cashOpeningReading, s.cashClosingReading, s.quantity, s.totalAmount, " +
+            "s.unitPrice, s.buyingPrice, s.costOfSales, s.shiftSession, " +
+            "s.product.name, s.branch.name, s.branch.id, s.product.id, s.createdAt) " +
+            "FROM SaleTransaction s WHERE s.company.id = :companyId " +
+            "AND (:startDate IS NULL OR s.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.transactionDate <= :endDate)")
+    List<SaleTransactionDTO> findByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate,
+                                                         Pageable pageable);
+
+    // Keyset (seek) pagination, newest first on (transaction_date, id)
+    @Query("SELECT new com.benguides.dtos.SaleTransactionDTO(" +
+            "s.id, s.transactionDate, s.litresOpeningReading, s.litresClosingReading, " +
+            "s.cashOpeningReading, s.cashClosingReading, s.quantity, s.totalAmount, " +
+            "s.unitPrice, s.buyingPrice, s.costOfSales, s.shiftSession, " +
+            "s.product.name, s.branch.name, s.branch.id, s.product.id, s.createdAt) " +
+            "FROM SaleTransaction s WHERE s.company.id = :companyId " +
+            "AND (:startDate IS NULL OR s.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.transactionDate <= :endDate) " +
+            "ORDER BY s.transactionDate DESC, s.id DESC")
+    List<SaleTransactionDTO> findLatestByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                                               @Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate,
+                                                               Limit limit);
+
+    // Rows strictly after the (afterDate, afterId) key in the same order
+    @Query("SELECT new com.benguides.dtos.SaleTransactionDTO(" +
+            "s.id, s.transactionDate, s.litresOpeningReading, s.litresClosingReading, " +
+            "s.cashOpeningReading, s.cashClosingReading, s.quantity, s.totalAmount, " +
+            "s.unitPrice, s.buyingPrice, s.costOfSales, s.shiftSession, " +
+            "s.product.name, s.branch.name, s.branch.id, s.product.id, s.createdAt) " +
+            "FROM SaleTransaction s WHERE s.company.id = :companyId " +
+            "AND (:startDate IS NULL OR s.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.transactionDate <= :endDate) " +
+            "AND s.transactionDate <= :afterDate " +
+            "AND (s.transactionDate < :afterDate OR s.id < :afterId) " +
+            "ORDER BY s.transactionDate DESC, s.id DESC")
+    List<SaleTransactionDTO> findByCompanyIdAndDateRangeAfter(@Param("companyId") Long companyId,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate,
+                                                              @Param("afterDate") LocalDate afterDate,
+                                                              @Param("afterId") Long afterId,
+                                                              Limit limit);
+
+    @Query("SELECT COUNT(s) FROM SaleTransaction s WHERE s.company.id = :companyId " +
+            "AND (:startDate IS NULL OR s.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.transactionDate <= :endDate)")
+    long countByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    // Oldest first for export; rows are read through a cursor in fetch-size batches, so the
+    // caller must consume and close the stream inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.benguides.dtos.SaleTransactionDTO(" +
+            "s.id, s.transactionDate, s.litresOpeningReading, s.litresClosingReading, " +
+            "s.cashOpeningReading, s.cashClosingReading, s.quantity, s.totalAmount, " +
+            "s.unitPrice, s.buyingPrice, s.costOfSales, s.shiftSession, " +
+            "s.product.name, s.branch.name, s.branch.id, s.product.id, s.createdAt) " +
+            "FROM SaleTransaction s WHERE s.company.id = :companyId " +
+            "AND (:startDate IS NULL OR s.transactionDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.transactionDate <= :endDate) " +
+            "ORDER BY s.transactionDate, s.id")
+    Stream<SaleTransactionDTO> streamByCompanyIdAndDateRange(@Param("companyId") Long companyId,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    // Keyset window, newest first: start from ScrollPosition.keyset() and continue from
+    // window.positionAt(window.size() - 1); latency does not grow with depth like OFFSET does
+    default Window<SaleTransactionDTO> scrollByCompanyIdAndDateRange(Long companyId, LocalDate startDate, LocalDate endDate,
+                                                                     KeysetScrollPosition position, int limit) {
+        return TransactionKeyset.scroll(position, limit,
+                (afterDate, afterId, max) -> afterDate == null || afterId == null
+                        ? findLatestByCompanyIdAndDateRange(companyId, startDate, endDate, max)
+                        : findByCompanyIdAndDateRangeAfter(companyId, startDate, endDate, afterDate, afterId, max),
+                SaleTransactionDTO::transactionDate, SaleTransactionDTO::id);
+    }
+
     @Query("SELECT new com.benguides.dtos.SaleTransactionDTO(" +
             "s.id, s.transactionDate, s.litresOpeningReading, s.litresClosingReading, " +
             "s.cashOpeningReading, s.cashClosingReading, s.quantity, s.totalAmount, " +
@@ -52,48 +146,16 @@ public interface SaleTransactionRepository extends JpaRepository<SaleTransaction
             "FROM SaleTransaction s WHERE s.branch.id = :branchId AND s.transactionDate = :date")
     List<SaleTransactionDTO> findByBranchAndDate(@Param("branchId") Long branchId, @Param("date") LocalDate date);
 
-    // For sales per branch (all time)
-    @Query("SELECT s.branch.name, SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId GROUP BY s.branch.name")
-    List<Object[]> getSalesPerBranch(@Param("companyId") Long companyId);
-
-    // For sales per branch between dates
-    @Query("SELECT s.branch.name, SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId AND s.transactionDate BETWEEN :start AND :end GROUP BY s.branch.name")
-    List<Object[]> getSalesPerBranchBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
-
-    // For daily sales per product
-    @Query("SELECT s.product.name, SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId AND s.transactionDate = :date GROUP BY s.product.name")
-    List<Object[]> getDailySalesPerProduct(@Param("companyId") Long companyId, @Param("date") LocalDate date);
-
-    // For daily sales per branch
-    @Query("SELECT s.branch.name, SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId AND s.transactionDate = :date GROUP BY s.branch.name")
-    List<Object[]> getDailySalesPerBranch(@Param("companyId") Long companyId, @Param("date") LocalDate date);
-
-    // For sales per product (all time)
-    @Query("SELECT s.product.name, SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId GROUP BY s.product.name")
-    List<Object[]> getSalesPerProduct(@Param("companyId") Long companyId);
-
-    // For sales per product between dates
-    @Query("SELECT s.product.name, SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId AND s.transactionDate BETWEEN :start AND :end GROUP BY s.product.name")
-    List<Object[]> getSalesPerProductBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
-
-    // For company daily sales summary
-    @Query("SELECT SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId AND s.transactionDate = :date")
-    Object[] getDailyCompanySalesSummary(@Param("companyId") Long companyId, @Param("date") LocalDate date);
+    // Guards for deleting a product or branch; the partitioned MySQL tables have no foreign keys to do it
+    boolean existsByProductId(Long productId);
 
-    // For company total sales summary (all time)
-    @Query("SELECT SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId")
-    Object[] getCompanyTotalSalesSummary(@Param("companyId") Long companyId);
+    boolean existsByBranchId(Long branchId);
 
-    // For sales summary between dates
-    @Query("SELECT SUM(s.totalAmount), SUM(s.costOfSales), SUM(s.quantity) " +
-            "FROM SaleTransaction s WHERE s.company.id = :companyId AND s.transactionDate BETWEEN :start AND :end")
-    Object[] getSalesSummaryBetween(@Param("companyId") Long companyId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+    // Persisted state of a sale, read without flushing pending changes so edits can be backed out of the rollup
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT new com.benguides.dtos.SaleContributionDTO(" +
+            "s.company.id, s.branch.id, s.product.id, s.transactionDate, s.shiftSession, " +
+            "s.totalAmount, s.costOfSales, s.quantity) " +
+            "FROM SaleTransaction s WHERE s.id = :id")
+    Optional<SaleContributionDTO> findContributionById(@Param("id") Long id);
 }
\ No newline at end of file
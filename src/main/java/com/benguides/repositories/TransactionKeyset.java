@@ -0,0 +1,45 @@
+package com.benguides.repositories;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Builds Spring Data windows over the (transactionDate, id) seek queries, newest first
+final class TransactionKeyset {
+
+    static final String DATE = "transactionDate";
+    static final String ID = "id";
+
+    @FunctionalInterface
+    interface Seek<T> {
+        // Rows after (afterDate, afterId); both are null for the first window
+        List<T> fetch(LocalDate afterDate, Long afterId, Limit limit);
+    }
+
+    private TransactionKeyset() {
+    }
+
+    static <T> Window<T> scroll(KeysetScrollPosition position, int limit, Seek<T> seek,
+                                Function<T, LocalDate> dateOf, Function<T, Long> idOf) {
+        if (position.scrollsBackward()) {
+            throw new IllegalArgumentException("Transactions can only be scrolled forward");
+        }
+        Map<String, Object> keys = position.getKeys();
+        LocalDate afterDate = (LocalDate) keys.get(DATE);
+        Long afterId = (Long) keys.get(ID);
+
+        // One extra row tells us whether another window follows
+        List<T> rows = seek.fetch(afterDate, afterId, Limit.of(limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(content,
+                i -> ScrollPosition.forward(Map.of(DATE, dateOf.apply(content.get(i)), ID, idOf.apply(content.get(i)))),
+                hasNext);
+    }
+}
@@ -0,0 +1,55 @@
+package com.benguides.security;
+
+import com.benguides.models.Role;
+import com.benguides.models.User;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Immutable snapshot of the signed-in user's identity, roles and permissions
+public record AuthenticatedPrincipal(
+        Long userId,
+        String username,
+        Long companyId,
+        Long branchId,
+        Set<Long> roleIds,
+        Set<String> roles,
+        PermissionBits permissions
+) {
+
+    public AuthenticatedPrincipal {
+        roleIds = Set.copyOf(roleIds);
+        roles = Set.copyOf(roles);
+    }
+
+    public static AuthenticatedPrincipal of(User user, PermissionRegistry registry) {
+        Set<Role> userRoles = user.getRoles() != null ? user.getRoles() : Set.of();
+        return new AuthenticatedPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getCompany() != null ? user.getCompany().getId() : null,
+                user.getBranch() != null ? user.getBranch().getId() : null,
+                userRoles.stream().map(Role::getId).collect(Collectors.toSet()),
+                userRoles.stream().map(Role::getName).collect(Collectors.toSet()),
+                registry.effectiveBits(userRoles)
+        );
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (this.roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ordinal from PermissionRegistry
+    public boolean hasPermission(int permission) {
+        return permissions.has(permission);
+    }
+}
@@ -0,0 +1,36 @@
+package com.benguides.security;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Immutable set of permissions as one bit per PermissionRegistry ordinal, safe to share between sessions
+public final class PermissionBits {
+
+    public static final PermissionBits EMPTY = new PermissionBits(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBits(long[] words) {
+        this.words = words;
+    }
+
+    static PermissionBits of(BitSet bits) {
+        return bits.isEmpty() ? EMPTY : new PermissionBits(bits.toLongArray());
+    }
+
+    public boolean has(int ordinal) {
+        int word = ordinal >>> 6;
+        return ordinal >= 0 && word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // Words never carry trailing zeros, so equal sets have equal arrays
+        return o instanceof PermissionBits other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
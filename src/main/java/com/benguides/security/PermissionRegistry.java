@@ -0,0 +1,62 @@
+package com.benguides.security;
+
+import com.benguides.models.Permission;
+import com.benguides.models.Role;
+import com.benguides.services.PermissionService;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Numbers every permission name so a set of permissions becomes a bitset and a check a single bit test.
+// Built-in permissions get ordinals in PermissionService order; any other name is numbered on first
+// sight. Ordinals are never reused, so bits computed earlier stay valid for the life of the process.
+@Component
+public class PermissionRegistry {
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private int nextOrdinal;
+
+    public PermissionRegistry() {
+        for (Permission permission : PermissionService.defaultPermissions()) {
+            ordinal(permission.getName());
+        }
+    }
+
+    public int ordinal(String permission) {
+        Integer ordinal = ordinals.get(permission);
+        return ordinal != null ? ordinal : assign(permission);
+    }
+
+    // -1 for a name never seen in any role, which nobody can hold
+    public int indexOf(String permission) {
+        return ordinals.getOrDefault(permission, -1);
+    }
+
+    // A user's effective permissions: the union of their roles' permissions
+    public PermissionBits effectiveBits(Collection<Role> roles) {
+        BitSet bits = new BitSet(ordinals.size());
+        for (Role role : roles) {
+            for (Permission permission : role.getPermissions()) {
+                bits.set(ordinal(permission.getName()));
+            }
+        }
+        return PermissionBits.of(bits);
+    }
+
+    public boolean has(PermissionBits bits, String permission) {
+        return bits.has(indexOf(permission));
+    }
+
+    private synchronized int assign(String permission) {
+        Integer existing = ordinals.get(permission);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = nextOrdinal++;
+        ordinals.put(permission, ordinal);
+        return ordinal;
+    }
+}
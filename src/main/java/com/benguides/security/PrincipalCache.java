@@ -0,0 +1,80 @@
+package com.benguides.security;
+
+import com.benguides.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Signed-in users' principals, loaded at login so role and permission checks are set lookups.
+// Kept per username rather than in the HTTP session so that admin changes to a user or role
+// can invalidate every session of the affected users. An entry unused for a session timeout
+// expires, so sessions that time out without a logout do not leave their principal behind.
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final PermissionRegistry permissionRegistry;
+
+    private final Cache<String, AuthenticatedPrincipal> principals;
+    // Bumped on every eviction so a load that raced with an admin change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(UserRepository userRepository, PermissionRegistry permissionRegistry,
+                          @Value("${server.servlet.session.timeout:30m}") Duration sessionTimeout) {
+        this.userRepository = userRepository;
+        this.permissionRegistry = permissionRegistry;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterAccess(sessionTimeout)
+                .build();
+    }
+
+    public Optional<AuthenticatedPrincipal> get(String username) {
+        AuthenticatedPrincipal cached = principals.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<AuthenticatedPrincipal> loaded = userRepository.findByUsernameWithCompanyAndBranch(username)
+                .map(user -> AuthenticatedPrincipal.of(user, permissionRegistry));
+        loaded.ifPresent(principal -> {
+            if (generation.get() == loadedAt) {
+                principals.put(username, principal);
+            }
+        });
+        return loaded;
+    }
+
+    // A fresh login always starts from the database
+    @EventListener
+    public void onLogin(AuthenticationSuccessEvent event) {
+        evict(event.getAuthentication().getName());
+        get(event.getAuthentication().getName());
+    }
+
+    public void evict(String username) {
+        generation.incrementAndGet();
+        principals.invalidate(username);
+    }
+
+    public void evictUser(Long userId) {
+        generation.incrementAndGet();
+        principals.asMap().values().removeIf(principal -> principal.userId().equals(userId));
+    }
+
+    public void evictRole(Long roleId) {
+        generation.incrementAndGet();
+        principals.asMap().values().removeIf(principal -> principal.roleIds().contains(roleId));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        principals.invalidateAll();
+    }
+}
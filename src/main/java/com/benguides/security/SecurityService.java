@@ -22,20 +22,18 @@ public class SecurityService {
     private final UserRepository userRepository;
     private final HttpServletRequest request;
     private final HttpServletResponse response;
+    private final PrincipalCache principalCache;
+    private final PermissionRegistry permissionRegistry;
 
+    // Cached ids, roles and permissions of the signed-in user; no database access after login
+    public Optional<AuthenticatedPrincipal> getAuthenticatedPrincipal() {
+        return getAuthenticatedUsername().flatMap(principalCache::get);
+    }
+
+    // Loads the user entity; prefer getAuthenticatedPrincipal() when only ids or roles are needed
     @Transactional(readOnly = true)
     public Optional<User> getAuthenticatedUser() {
-        SecurityContext context = SecurityContextHolder.getContext();
-        Authentication authentication = context.getAuthentication();
-
-        if (authentication != null && authentication.isAuthenticated()) {
-            Object principal = authentication.getPrincipal();
-            if (principal instanceof UserDetails) {
-                String username = ((UserDetails) principal).getUsername();
-                return userRepository.findByUsernameWithCompanyAndBranch(username);
-            }
-        }
-        return Optional.empty();
+        return getAuthenticatedUsername().flatMap(userRepository::findByUsernameWithCompanyAndBranch);
     }
 
     @Transactional(readOnly = true)
@@ -46,15 +44,17 @@ public class SecurityService {
 
     @Transactional(readOnly = true)
     public Optional<UserWithCompanyDTO> getAuthenticatedUserWithCompany() {
+        return getAuthenticatedUser().map(this::convertToUserWithCompanyDTO);
+    }
+
+    private Optional<String> getAuthenticatedUsername() {
         SecurityContext context = SecurityContextHolder.getContext();
         Authentication authentication = context.getAuthentication();
 
         if (authentication != null && authentication.isAuthenticated()) {
             Object principal = authentication.getPrincipal();
             if (principal instanceof UserDetails) {
-                String username = ((UserDetails) principal).getUsername();
-                return userRepository.findByUsernameWithCompanyAndBranch(username)
-                        .map(this::convertToUserWithCompanyDTO);
+                return Optional.of(((UserDetails) principal).getUsername());
             }
         }
         return Optional.empty();
@@ -83,32 +83,28 @@ public class SecurityService {
     public void logout() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null) {
+            principalCache.evict(auth.getName());
             new SecurityContextLogoutHandler().logout(request, response, auth);
         }
         SecurityContextHolder.clearContext();
     }
 
     public boolean hasPermission(String permission) {
-        return getAuthenticatedUser()
-                .map(user -> user.hasPermission(permission))
+        int ordinal = permissionRegistry.indexOf(permission);
+        return getAuthenticatedPrincipal()
+                .map(principal -> principal.hasPermission(ordinal))
                 .orElse(false);
     }
 
     public boolean hasRole(String role) {
-        return getAuthenticatedUser()
-                .map(user -> user.hasRole(role))
+        return getAuthenticatedPrincipal()
+                .map(principal -> principal.hasRole(role))
                 .orElse(false);
     }
+
     public boolean hasAnyRole(String... roles) {
-        return getAuthenticatedUser()
-                .map(user -> {
-                    for (String role : roles) {
-                        if (user.hasRole(role)) {
-                            return true;
-                        }
-                    }
-                    return false;
-                })
+        return getAuthenticatedPrincipal()
+                .map(principal -> principal.hasAnyRole(roles))
                 .orElse(false);
     }
 }
\ No newline at end of file
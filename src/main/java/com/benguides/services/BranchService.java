@@ -1,16 +1,23 @@
 package com.benguides.services;
 
+import com.benguides.config.CacheConfig;
 import com.benguides.dtos.CompanyDTO;
 import com.benguides.models.Branch;
 import com.benguides.models.Company;
 import com.benguides.repositories.BranchRepository;
 import com.benguides.repositories.CompanyRepository;
+import com.benguides.repositories.ExpenseTransactionRepository;
+import com.benguides.repositories.SaleTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -19,8 +26,12 @@ import java.util.Optional;
 public class BranchService {
     private final BranchRepository branchRepository;
     private final CompanyRepository companyRepository;
+    private final SaleTransactionRepository saleTransactionRepository;
+    private final ExpenseTransactionRepository expenseTransactionRepository;
+    private final CacheManager cacheManager;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACTIVE_BRANCHES, key = "#company.id")
     public Branch createBranch(Branch branch, Company company) {
         branch.setCompany(company);
         return branchRepository.save(branch);
@@ -31,7 +42,9 @@ public class BranchService {
         return branchRepository.findByCompanyId(companyId);
     }
 
+    // Shared by every user of the company; callers must not modify the returned branches
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ACTIVE_BRANCHES, key = "#companyId")
     public List<Branch> getActiveBranchesByCompany(Long companyId) {
         return branchRepository.findActiveBranchesByCompany(companyId);
     }
@@ -73,6 +86,7 @@ public class BranchService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACTIVE_BRANCHES, key = "#branch.company.id")
     public Branch updateBranch(Branch branch) {
         return branchRepository.save(branch);
     }
@@ -82,11 +96,23 @@ public class BranchService {
         branchRepository.findById(id).ifPresent(branch -> {
             branch.setActive(false);
             branchRepository.save(branch);
+            evictActiveBranches(branch.getCompany().getId());
         });
     }
     @Transactional
     public void deleteBranch(Long id) {
-        branchRepository.deleteById(id);
+        if (saleTransactionRepository.existsByBranchId(id) || expenseTransactionRepository.existsByBranchId(id)) {
+            throw new IllegalStateException("This branch has recorded sales or expenses and cannot be deleted; deactivate it instead");
+        }
+        branchRepository.findById(id).ifPresent(branch -> {
+            branchRepository.delete(branch);
+            evictActiveBranches(branch.getCompany().getId());
+        });
+    }
+
+    // Only the id is known to the caller; the eviction is deferred until the transaction commits
+    private void evictActiveBranches(Long companyId) {
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.ACTIVE_BRANCHES)).evict(companyId);
     }
 
     @Transactional(readOnly = true)
@@ -5,6 +5,7 @@ import com.benguides.dtos.CompanyUpdateRequest;
 import com.benguides.models.Company;
 import com.benguides.repositories.CompanyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
@@ -12,6 +13,8 @@ import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Optional;
 
+// Admin-only; created on first use rather than at startup
+@Lazy
 @Service
 @Validated
 @RequiredArgsConstructor
@@ -0,0 +1,108 @@
+package com.benguides.services;
+
+import com.benguides.dtos.SaleContributionDTO;
+import com.benguides.models.SaleTransaction;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.repositories.DailySalesRollupRepository;
+import com.benguides.repositories.SaleTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailySalesRollupService {
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final CompanyRepository companyRepository;
+    private final SaleTransactionRepository saleTransactionRepository;
+
+    // Removes a deleted sale's amounts from its (company, branch, product, date, shift) bucket.
+    // Must run inside the transaction that deletes the sale.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtract(SaleContributionDTO contribution) {
+        applyAll(List.of(contribution), List.of());
+    }
+
+    // Applies a batch of sale writes, folding everything that lands in the same bucket into one
+    // upsert. Buckets are written in key order so concurrent shift submissions lock them in the same order.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Collection<SaleContributionDTO> removed, Collection<SaleContributionDTO> added) {
+        Map<BucketKey, Delta> deltas = new TreeMap<>(BucketKey.ORDER);
+        removed.forEach(c -> deltas.computeIfAbsent(BucketKey.of(c), k -> new Delta()).fold(c, BigDecimal.ONE.negate(), -1));
+        added.forEach(c -> deltas.computeIfAbsent(BucketKey.of(c), k -> new Delta()).fold(c, BigDecimal.ONE, 1));
+        deltas.forEach(this::apply);
+    }
+
+    private void apply(BucketKey key, Delta delta) {
+        rollupRepository.upsert(key.companyId(), key.branchId(), key.productId(), key.transactionDate(), key.shiftSession(),
+                delta.totalAmount, delta.costOfSales, delta.quantity, delta.count);
+        if (delta.count < 0) {
+            rollupRepository.deleteIfEmpty(key.companyId(), key.branchId(), key.productId(), key.transactionDate(),
+                    key.shiftSession());
+        }
+    }
+
+    private record BucketKey(Long companyId, Long branchId, Long productId, LocalDate transactionDate,
+                             SaleTransaction.ShiftSession shiftSession) {
+        static final Comparator<BucketKey> ORDER = Comparator.comparing(BucketKey::companyId)
+                .thenComparing(BucketKey::branchId)
+                .thenComparing(BucketKey::productId)
+                .thenComparing(BucketKey::transactionDate)
+                .thenComparing(BucketKey::shiftSession);
+
+        static BucketKey of(SaleContributionDTO c) {
+            return new BucketKey(c.companyId(), c.branchId(), c.productId(), c.transactionDate(), c.shiftSession());
+        }
+    }
+
+    private static final class Delta {
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private BigDecimal costOfSales = BigDecimal.ZERO;
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private long count;
+
+        // Round to the stored column scales so the rollup matches SUM() over sale_transactions
+        void fold(SaleContributionDTO c, BigDecimal sign, int countDelta) {
+            totalAmount = totalAmount.add(scaled(c.totalAmount(), 2).multiply(sign));
+            costOfSales = costOfSales.add(scaled(c.costOfSales(), 2).multiply(sign));
+            quantity = quantity.add(scaled(c.quantity(), 3).multiply(sign));
+            count += countDelta;
+        }
+    }
+
+    private static BigDecimal scaled(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+    // Recomputes a company's rollup from sale_transactions in a single INSERT ... SELECT.
+    @Transactional
+    public int rebuild(Long companyId) {
+        rollupRepository.deleteByCompanyId(companyId);
+        return rollupRepository.insertFromSaleTransactions(companyId);
+    }
+
+    // Backfills rollups for sales written before the rollup table existed.
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0 || saleTransactionRepository.count() == 0) {
+            return;
+        }
+        companyRepository.findAll().forEach(company -> {
+            int rows = rebuild(company.getId());
+            log.info("Rebuilt {} daily sales rollup rows for company {}", rows, company.getName());
+        });
+    }
+}
@@ -1,29 +1,38 @@
 package com.benguides.services;
 
+import com.benguides.dtos.ExpenseContributionDTO;
 import com.benguides.dtos.ExpenseTransactionDTO;
+import com.benguides.events.ExpensesChangedEvent;
 import com.benguides.models.Branch;
 import com.benguides.models.Company;
 import com.benguides.models.ExpenseTransaction;
 import com.benguides.models.ExpenseType;
 import com.benguides.repositories.ExpenseTransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseTransactionService {
 
     private final ExpenseTransactionRepository expenseTransactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ExpenseTransaction createNew(Company company, Branch branch, ExpenseType expenseType, LocalDate date) {
         ExpenseTransaction transaction = new ExpenseTransaction();
@@ -34,19 +43,75 @@ public class ExpenseTransactionService {
         return transaction;
     }
 
+    @Transactional
     public ExpenseTransaction save(ExpenseTransaction transaction) {
-        return expenseTransactionRepository.save(transaction);
+        return saveAll(List.of(transaction)).get(0);
     }
 
+    // Saves a chunk of rows in one transaction; inserts go out as JDBC batches
+    @Transactional
+    public List<ExpenseTransaction> saveAll(List<ExpenseTransaction> transactions) {
+        // Persisted values of edited rows, read before the save overwrites them
+        List<ExpenseContributionDTO> previous = transactions.stream()
+                .filter(transaction -> transaction.getId() != null)
+                .flatMap(transaction -> expenseTransactionRepository.findContributionById(transaction.getId()).stream())
+                .toList();
+        List<ExpenseTransaction> saved = expenseTransactionRepository.saveAll(transactions);
+        publishChanges(previous, saved.stream().map(ExpenseContributionDTO::of).toList());
+        return saved;
+    }
+
+    @Transactional
     public void delete(Long id) {
-        expenseTransactionRepository.deleteById(id);
+        expenseTransactionRepository.findContributionById(id).ifPresent(contribution -> {
+            expenseTransactionRepository.deleteById(id);
+            publishChanges(List.of(contribution), List.of());
+        });
+    }
+
+    // One event per company, delivered to open views once the transaction commits (CompanyEventBus)
+    private void publishChanges(List<ExpenseContributionDTO> removed, List<ExpenseContributionDTO> added) {
+        Stream.concat(removed.stream(), added.stream())
+                .map(ExpenseContributionDTO::companyId)
+                .distinct()
+                .forEach(companyId -> eventPublisher.publishEvent(new ExpensesChangedEvent(companyId,
+                        removed.stream().filter(c -> companyId.equals(c.companyId())).toList(),
+                        added.stream().filter(c -> companyId.equals(c.companyId())).toList())));
     }
 
+    @Transactional(readOnly = true)
     public Page<ExpenseTransactionDTO> getAllByCompanyPaged(Long companyId, LocalDate startDate, LocalDate endDate, int pageNumber, int pageSize) {
         Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by("transactionDate").descending());
         return expenseTransactionRepository.findByCompanyIdAndDateRangePaged(companyId, startDate, endDate, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public List<ExpenseTransactionDTO> getAllByCompany(Long companyId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return expenseTransactionRepository.findByCompanyIdAndDateRange(companyId, startDate, endDate, pageable);
+    }
+
+    // Newest-first page following the (afterDate, afterId) key; null key for the first page
+    @Transactional(readOnly = true)
+    public List<ExpenseTransactionDTO> getPageAfter(Long companyId, LocalDate startDate, LocalDate endDate,
+                                                    LocalDate afterDate, Long afterId, int limit) {
+        if (afterDate == null || afterId == null) {
+            return expenseTransactionRepository.findLatestByCompanyIdAndDateRange(companyId, startDate, endDate, Limit.of(limit));
+        }
+        return expenseTransactionRepository.findByCompanyIdAndDateRangeAfter(companyId, startDate, endDate, afterDate, afterId, Limit.of(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countByCompany(Long companyId, LocalDate startDate, LocalDate endDate) {
+        return expenseTransactionRepository.countByCompanyIdAndDateRange(companyId, startDate, endDate);
+    }
+
+    // Pass ScrollPosition.keyset() for the first window, then the position of the last row
+    @Transactional(readOnly = true)
+    public Window<ExpenseTransactionDTO> scrollByCompany(Long companyId, LocalDate startDate, LocalDate endDate,
+                                                         KeysetScrollPosition position, int limit) {
+        return expenseTransactionRepository.scrollByCompanyIdAndDateRange(companyId, startDate, endDate, position, limit);
+    }
+
     // Helper to convert List<Object[]> to Map<String, BigDecimal[]>
     private Map<String, BigDecimal[]> convertToMap(List<Object[]> data) {
         Map<String, BigDecimal[]> result = new HashMap<>();
@@ -58,27 +123,33 @@ public class ExpenseTransactionService {
         return result;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getExpensesPerType(Long companyId) {
         return convertToMap(expenseTransactionRepository.getExpensesPerType(companyId));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getExpensesPerTypeBetween(Long companyId, LocalDate start, LocalDate end) {
         return convertToMap(expenseTransactionRepository.getExpensesPerTypeBetween(companyId, start, end));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getExpensesPerBranch(Long companyId) {
         return convertToMap(expenseTransactionRepository.getExpensesPerBranch(companyId));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getExpensesPerBranchBetween(Long companyId, LocalDate start, LocalDate end) {
         return convertToMap(expenseTransactionRepository.getExpensesPerBranchBetween(companyId, start, end));
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal[] getCompanyTotalExpensesSummary(Long companyId) {
         Object[] result = expenseTransactionRepository.getCompanyTotalExpensesSummary(companyId);
         return new BigDecimal[]{(BigDecimal) (result != null && result.length > 0 ? result[0] : BigDecimal.ZERO)};
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal[] getExpensesSummaryBetween(Long companyId, LocalDate start, LocalDate end) {
         Object[] result = expenseTransactionRepository.getExpensesSummaryBetween(companyId, start, end);
         return new BigDecimal[]{(BigDecimal) (result != null && result.length > 0 ? result[0] : BigDecimal.ZERO)};
@@ -1,13 +1,20 @@
 package com.benguides.services;
 
+import com.benguides.config.CacheConfig;
 import com.benguides.dtos.ExpenseTypeDTO;
 import com.benguides.models.Company;
 import com.benguides.models.ExpenseType;
+import com.benguides.repositories.ExpenseTransactionRepository;
 import com.benguides.repositories.ExpenseTypeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -15,6 +22,8 @@ import java.util.Optional;
 public class ExpenseTypeService {
 
     private final ExpenseTypeRepository expenseTypeRepository;
+    private final ExpenseTransactionRepository expenseTransactionRepository;
+    private final CacheManager cacheManager;
 
     public ExpenseType createNew(Company company, String name) {
         ExpenseType type = new ExpenseType();
@@ -23,6 +32,7 @@ public class ExpenseTypeService {
         return type;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.EXPENSE_TYPES, key = "#type.company.id")
     public ExpenseType save(ExpenseType type) {
         return expenseTypeRepository.save(type);
     }
@@ -31,6 +41,8 @@ public class ExpenseTypeService {
         return expenseTypeRepository.findByCompanyId(companyId);
     }
 
+    // Shared by every user of the company; callers must not modify the returned types
+    @Cacheable(cacheNames = CacheConfig.EXPENSE_TYPES, key = "#companyId")
     public List<ExpenseType> getAllByCompany(Long companyId) {
         return expenseTypeRepository.findAllByCompanyId(companyId); // Assuming you add this method or use DTOs
     }
@@ -39,7 +51,15 @@ public class ExpenseTypeService {
         return expenseTypeRepository.findByCompanyIdAndName(companyId, name);
     }
 
+    @Transactional
     public void delete(Long id) {
-        expenseTypeRepository.deleteById(id);
+        if (expenseTransactionRepository.existsByExpenseTypeId(id)) {
+            throw new IllegalStateException("This expense type has recorded expenses and cannot be deleted");
+        }
+        expenseTypeRepository.findById(id).ifPresent(type -> {
+            expenseTypeRepository.delete(type);
+            // Deferred until the transaction commits
+            Objects.requireNonNull(cacheManager.getCache(CacheConfig.EXPENSE_TYPES)).evict(type.getCompany().getId());
+        });
     }
 }
\ No newline at end of file
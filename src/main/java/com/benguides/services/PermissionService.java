@@ -1,20 +1,41 @@
 package com.benguides.services;
 
+import com.benguides.config.CacheConfig;
 import com.benguides.models.Permission;
 import com.benguides.repositories.PermissionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PermissionService {
     private final PermissionRepository permissionRepository;
 
-    public void initializePermissions() {
-        List<Permission> defaultPermissions = Arrays.asList(
+    // Inserts the missing built-in permissions in one call and returns every permission by name
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PERMISSIONS, allEntries = true)
+    public Map<String, Permission> initializePermissions() {
+        Map<String, Permission> byName = permissionRepository.findAll().stream()
+                .collect(Collectors.toMap(Permission::getName, Function.identity()));
+        List<Permission> missing = defaultPermissions().stream()
+                .filter(permission -> !byName.containsKey(permission.getName()))
+                .toList();
+        permissionRepository.saveAll(missing).forEach(permission -> byName.put(permission.getName(), permission));
+        return byName;
+    }
+
+    // Built-in permissions in a fixed order; PermissionRegistry numbers them in this order
+    public static List<Permission> defaultPermissions() {
+        return Arrays.asList(
                 // User Management
                 new Permission("CREATE_USER", "Create new users", "USER_MANAGEMENT"),
                 new Permission("VIEW_USERS", "View users list", "USER_MANAGEMENT"),
@@ -54,14 +75,9 @@ public class PermissionService {
                 new Permission("VIEW_SYSTEM_LOGS", "View system logs", "SYSTEM_ADMIN"),
                 new Permission("MANAGE_SYSTEM_SETTINGS", "Manage system settings", "SYSTEM_ADMIN")
         );
-
-        for (Permission permission : defaultPermissions) {
-            if (!permissionRepository.existsByName(permission.getName())) {
-                permissionRepository.save(permission);
-            }
-        }
     }
 
+    @Cacheable(CacheConfig.PERMISSIONS)
     public List<Permission> getAllPermissions() {
         return permissionRepository.findAll();
     }
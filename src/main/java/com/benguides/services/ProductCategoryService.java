@@ -1,14 +1,19 @@
 package com.benguides.services;
 
+import com.benguides.config.CacheConfig;
 import com.benguides.dtos.ProductCategoryDTO;
 import com.benguides.models.ProductCategory;
 import com.benguides.repositories.ProductCategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+// Admin-only; created on first use rather than at startup
+@Lazy
 @Service
 public class ProductCategoryService {
 
@@ -26,7 +31,9 @@ public class ProductCategoryService {
                 ));
     }
 
+    // Cached product pages (ProductService) carry the category name
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMPANY_PRODUCTS, key = "#category.company.id")
     public ProductCategory save(ProductCategory category) {
         // Check for duplicate category name within the same company
         if (repository.existsByNameAndCompanyId(category.getName(), category.getCompany().getId())) {
@@ -41,6 +48,7 @@ public class ProductCategoryService {
                 .orElseThrow(() -> new RuntimeException("Category not found"));
     }
 
+    // Only categories without products can go, so no cached product page refers to it
     @Transactional
     public void delete(Long id) {
         // Check if category has products before deletion
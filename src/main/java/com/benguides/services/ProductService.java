@@ -1,14 +1,21 @@
 package com.benguides.services;
 
+import com.benguides.config.CacheConfig;
 import com.benguides.dtos.ProductDTO;
 import com.benguides.models.Product;
 import com.benguides.repositories.ProductRepository;
+import com.benguides.repositories.SaleTransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -17,9 +24,24 @@ public class ProductService {
     @Autowired
     private ProductRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private SaleTransactionRepository saleTransactionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Pages are cut from the company's cached product list, so an edit evicts only that company's entry.
+    // Not transactional: a cache hit borrows no connection, and a miss loads in the repository's transaction
     public Page<ProductDTO> getProductsByCompany(Long companyId, int page, int size) {
-        return repository.findByCompanyIdWithCategoryAndCompany(companyId, PageRequest.of(page, size))
+        List<ProductDTO> products = companyProducts().get(companyId, () -> loadProducts(companyId));
+        PageRequest pageRequest = PageRequest.of(page, size);
+        int from = (int) Math.min(pageRequest.getOffset(), products.size());
+        int to = Math.min(from + size, products.size());
+        return new PageImpl<>(products.subList(from, to), pageRequest, products.size());
+    }
+
+    private List<ProductDTO> loadProducts(Long companyId) {
+        return repository.findAllByCompanyIdWithCategoryAndCompany(companyId).stream()
                 .map(p -> new ProductDTO(
                         p.getId(),
                         p.getName(),
@@ -28,10 +50,12 @@ public class ProductService {
                         p.isActive(),
                         p.getCompany().getName(),
                         p.getCompany().getId()
-                ));
+                ))
+                .toList();
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMPANY_PRODUCTS, key = "#product.company.id")
     public Product save(Product product) {
         return repository.save(product);
     }
@@ -44,9 +68,24 @@ public class ProductService {
 
     @Transactional
     public void delete(Long id) {
+        if (saleTransactionRepository.existsByProductId(id)) {
+            throw new IllegalStateException("This product has recorded sales and cannot be deleted; deactivate it instead");
+        }
+        Product product = repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        repository.delete(product);
+        // Deferred to commit by the transaction-aware cache
+        companyProducts().evict(product.getCompany().getId());
+    }
 
-        repository.deleteById(id);
+    private Cache companyProducts() {
+        Cache cache = cacheManager.getCache(CacheConfig.COMPANY_PRODUCTS);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + CacheConfig.COMPANY_PRODUCTS + " is not configured");
+        }
+        return cache;
     }
+
     @Transactional(readOnly = true)
     public Optional<Product> findByCompanyAndName(Long companyId, String name) {
         return repository.findByCompanyIdAndName(companyId, name);
@@ -0,0 +1,159 @@
+package com.benguides.services;
+
+import com.benguides.config.CacheConfig;
+import com.benguides.dtos.ExpenseContributionDTO;
+import com.benguides.dtos.ProfitAndLossReport;
+import com.benguides.dtos.SaleContributionDTO;
+import com.benguides.events.CompanyEvent;
+import com.benguides.events.ExpensesChangedEvent;
+import com.benguides.events.SalesChangedEvent;
+import com.benguides.repositories.DailySalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ProfitAndLossService {
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final CacheManager cacheManager;
+
+    // One query row: a branch's sales of one product on one day, or its expenses on one day (null product)
+    private record Row(Long branchId, String branchName, Long productId, String productName, LocalDate date,
+                       BigDecimal revenue, BigDecimal costOfSales, BigDecimal expenses) {}
+
+    private record MonthKey(Long companyId, YearMonth month) {}
+
+    // Any date range, computed in one query
+    @Transactional(readOnly = true)
+    public ProfitAndLossReport getReport(Long companyId, LocalDate start, LocalDate end) {
+        return toReport(start, end, queryRows(companyId, start, end));
+    }
+
+    // Whole months: each closed month comes from its cached monthly close, so only the open month is queried
+    @Transactional(readOnly = true)
+    public ProfitAndLossReport getReport(Long companyId, YearMonth from, YearMonth to) {
+        List<Row> rows = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            rows.addAll(getMonthRows(companyId, month));
+        }
+        return toReport(from.atDay(1), to.atEndOfMonth(), rows);
+    }
+
+    @Transactional(readOnly = true)
+    public ProfitAndLossReport getMonthlyClose(Long companyId, YearMonth month) {
+        return getReport(companyId, month, month);
+    }
+
+    private List<Row> getMonthRows(Long companyId, YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            return queryRows(companyId, month.atDay(1), month.atEndOfMonth());
+        }
+        return monthlyCloses().get(new MonthKey(companyId, month),
+                () -> queryRows(companyId, month.atDay(1), month.atEndOfMonth()));
+    }
+
+    // A backdated sale or expense reopens the closed months it touches. Runs inside the writing transaction;
+    // the transaction-aware cache defers the eviction to its commit.
+    @EventListener
+    public void onChange(CompanyEvent event) {
+        Stream<LocalDate> dates = switch (event) {
+            case SalesChangedEvent sales -> Stream.concat(sales.removed().stream(), sales.added().stream())
+                    .map(SaleContributionDTO::transactionDate);
+            case ExpensesChangedEvent expenses -> Stream.concat(expenses.removed().stream(), expenses.added().stream())
+                    .map(ExpenseContributionDTO::transactionDate);
+        };
+        YearMonth open = YearMonth.now();
+        Cache closes = monthlyCloses();
+        dates.map(YearMonth::from)
+                .distinct()
+                .filter(month -> month.isBefore(open))
+                .forEach(month -> closes.evict(new MonthKey(event.companyId(), month)));
+    }
+
+    private Cache monthlyCloses() {
+        Cache cache = cacheManager.getCache(CacheConfig.MONTHLY_CLOSE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + CacheConfig.MONTHLY_CLOSE + " is not configured");
+        }
+        return cache;
+    }
+
+    private List<Row> queryRows(Long companyId, LocalDate start, LocalDate end) {
+        return rollupRepository.getProfitAndLossRowsBetween(companyId, start, end).stream()
+                .map(row -> new Row((Long) row[0], (String) row[1], (Long) row[2], (String) row[3], (LocalDate) row[4],
+                        orZero(row[5]), orZero(row[6]), orZero(row[7])))
+                .toList();
+    }
+
+    // Folds branch x product x day rows into branch, product, day, month and company lines
+    private ProfitAndLossReport toReport(LocalDate start, LocalDate end, List<Row> rows) {
+        Map<Long, ProfitAndLossReport.Line> branches = new LinkedHashMap<>();
+        Map<Long, ProfitAndLossReport.Line> products = new LinkedHashMap<>();
+        Map<LocalDate, ProfitAndLossReport.Line> days = new TreeMap<>();
+        Map<YearMonth, ProfitAndLossReport.Line> months = new TreeMap<>();
+        ProfitAndLossReport.Line total = line(null, "Total", null, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        for (Row row : rows) {
+            branches.merge(row.branchId(),
+                    line(row.branchId(), branchName(row), null, row.revenue(), row.costOfSales(), row.expenses()),
+                    ProfitAndLossReport.Line::plus);
+            if (row.productId() != null) {
+                products.merge(row.productId(),
+                        line(row.productId(), productName(row), null, row.revenue(), row.costOfSales(), BigDecimal.ZERO),
+                        ProfitAndLossReport.Line::plus);
+            }
+            days.merge(row.date(), line(null, null, row.date(), row.revenue(), row.costOfSales(), row.expenses()),
+                    ProfitAndLossReport.Line::plus);
+            YearMonth month = YearMonth.from(row.date());
+            months.merge(month, line(null, null, month.atDay(1), row.revenue(), row.costOfSales(), row.expenses()),
+                    ProfitAndLossReport.Line::plus);
+            total = total.plus(line(null, null, null, row.revenue(), row.costOfSales(), row.expenses()));
+        }
+
+        Comparator<ProfitAndLossReport.Line> byName = Comparator.comparing(ProfitAndLossReport.Line::name);
+        return new ProfitAndLossReport(start, end,
+                branches.values().stream().sorted(byName).toList(),
+                products.values().stream().sorted(byName).toList(),
+                List.copyOf(days.values()),
+                List.copyOf(months.values()),
+                total);
+    }
+
+    // The names come from LEFT JOINs, and the partitioned MySQL tables have no foreign keys to stop a branch
+    // or product from being deleted under rows recorded before the delete guards
+    private String branchName(Row row) {
+        if (row.branchId() == null) {
+            return "Unallocated";
+        }
+        return row.branchName() != null ? row.branchName() : "Deleted branch " + row.branchId();
+    }
+
+    private String productName(Row row) {
+        return row.productName() != null ? row.productName() : "Deleted product " + row.productId();
+    }
+
+    private ProfitAndLossReport.Line line(Long id, String name, LocalDate period,
+                                          BigDecimal revenue, BigDecimal costOfSales, BigDecimal expenses) {
+        return new ProfitAndLossReport.Line(id, name, period, revenue, costOfSales, expenses);
+    }
+
+    private BigDecimal orZero(Object value) {
+        return value != null ? (BigDecimal) value : BigDecimal.ZERO;
+    }
+}
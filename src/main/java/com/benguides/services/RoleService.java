@@ -1,131 +1,106 @@
 package com.benguides.services;
 
+import com.benguides.config.CacheConfig;
 import com.benguides.models.Permission;
 import com.benguides.models.Role;
 import com.benguides.repositories.RoleRepository;
+import com.benguides.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RoleService {
     private final RoleRepository roleRepository;
     private final PermissionService permissionService;
-
+    private final PrincipalCache principalCache;
+
+    // Built-in roles in seeding order; a null permission list grants every permission
+    private record BuiltInRole(String name, String displayName, boolean revokable, boolean resignable,
+                               List<String> permissions) {}
+
+    private static final List<BuiltInRole> BUILT_IN_ROLES = List.of(
+            new BuiltInRole("ROLE_SUPER_ADMIN", "System Super Administrator", false, false, null),
+            new BuiltInRole("ROLE_COMPANY_ADMIN", "Company Administrator", true, true, List.of(
+                    "CREATE_USER", "VIEW_USERS", "EDIT_USER", "DELETE_USER", "ASSIGN_ROLES",
+                    "VIEW_COMPANIES", "EDIT_COMPANY",
+                    "CREATE_BRANCH", "VIEW_BRANCHES", "EDIT_BRANCH", "DELETE_BRANCH", "APPROVE_BRANCH_ENTRY",
+                    "CREATE_PRODUCT", "DELETE_PRODUCT", "EDIT_PRODUCT", "VIEW_PRODUCTS", "APPROVE_PRODUCT_CREATION",
+                    "CREATE_STOCK", "ADJUST_STOCK", "VIEW_STOCK", "APPROVE_STOCK_ENTRY", "APPROVE_STOCK_ADJUSTMENT")),
+            new BuiltInRole("ROLE_BRANCH_MANAGER", "Branch Manager", true, true, List.of(
+                    "VIEW_USERS", "CREATE_USER", "VIEW_BRANCHES", "CREATE_PRODUCT", "VIEW_PRODUCTS",
+                    "CREATE_STOCK", "ADJUST_STOCK", "VIEW_STOCK", "APPROVE_STOCK_ENTRY", "APPROVE_STOCK_ADJUSTMENT")),
+            new BuiltInRole("ROLE_SHIFT_SUPERVISOR", "Shift Supervisor", true, true, List.of(
+                    "VIEW_PRODUCTS", "CREATE_STOCK", "VIEW_STOCK", "ADJUST_STOCK")),
+            new BuiltInRole("ROLE_SHIFT_ATTENDANT", "Shift Attendant", true, true, List.of(
+                    "VIEW_PRODUCTS", "VIEW_STOCK"))
+    );
+
+    // Idempotent bootstrap in one transaction: permissions are read once into a name -> entity map,
+    // and a built-in role is only written when it is missing or its permissions differ
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ROLES, allEntries = true)
     public void initializeRoles() {
-        permissionService.initializePermissions();
-
-        // Super Admin Role
-        Role superAdmin = roleRepository.findByName("ROLE_SUPER_ADMIN")
-                .orElse(new Role(null, "ROLE_SUPER_ADMIN", "System Super Administrator", false, false, new HashSet<>()));
-        superAdmin.setPermissions(new HashSet<>(permissionService.getAllPermissions()));
-        roleRepository.save(superAdmin);
-
-        // Company Admin Role
-        Role companyAdmin = roleRepository.findByName("ROLE_COMPANY_ADMIN")
-                .orElse(new Role(null, "ROLE_COMPANY_ADMIN", "Company Administrator", true, true, new HashSet<>()));
-        Set<Permission> companyAdminPermissions = getCompanyAdminPermissions();
-        companyAdmin.setPermissions(companyAdminPermissions);
-        roleRepository.save(companyAdmin);
-
-        // Branch Manager Role
-        Role branchManager = roleRepository.findByName("ROLE_BRANCH_MANAGER")
-                .orElse(new Role(null, "ROLE_BRANCH_MANAGER", "Branch Manager", true, true, new HashSet<>()));
-        Set<Permission> branchManagerPermissions = getBranchManagerPermissions();
-        branchManager.setPermissions(branchManagerPermissions);
-        roleRepository.save(branchManager);
-
-        // Shift Supervisor Role
-        Role shiftSupervisor = roleRepository.findByName("ROLE_SHIFT_SUPERVISOR")
-                .orElse(new Role(null, "ROLE_SHIFT_SUPERVISOR", "Shift Supervisor", true, true, new HashSet<>()));
-        Set<Permission> shiftSupervisorPermissions = getShiftSupervisorPermissions();
-        shiftSupervisor.setPermissions(shiftSupervisorPermissions);
-        roleRepository.save(shiftSupervisor);
-
-        // Shift Attendant Role
-        Role shiftAttendant = roleRepository.findByName("ROLE_SHIFT_ATTENDANT")
-                .orElse(new Role(null, "ROLE_SHIFT_ATTENDANT", "Shift Attendant", true, true, new HashSet<>()));
-        Set<Permission> shiftAttendantPermissions = getShiftAttendantPermissions();
-        shiftAttendant.setPermissions(shiftAttendantPermissions);
-        roleRepository.save(shiftAttendant);
-    }
-
-    private Set<Permission> getCompanyAdminPermissions() {
-        return new HashSet<>(Arrays.asList(
-                getPermission("CREATE_USER"),
-                getPermission("VIEW_USERS"),
-                getPermission("EDIT_USER"),
-                getPermission("DELETE_USER"),
-                getPermission("ASSIGN_ROLES"),
-                getPermission("VIEW_COMPANIES"),
-                getPermission("EDIT_COMPANY"),
-                getPermission("CREATE_BRANCH"),
-                getPermission("VIEW_BRANCHES"),
-                getPermission("EDIT_BRANCH"),
-                getPermission("DELETE_BRANCH"),
-                getPermission("APPROVE_BRANCH_ENTRY"),
-                getPermission("CREATE_PRODUCT"),
-                getPermission("DELETE_PRODUCT"),
-                getPermission("EDIT_PRODUCT"),
-                getPermission("VIEW_PRODUCTS"),
-                getPermission("APPROVE_PRODUCT_CREATION"),
-                getPermission("CREATE_STOCK"),
-                getPermission("ADJUST_STOCK"),
-                getPermission("VIEW_STOCK"),
-                getPermission("APPROVE_STOCK_ENTRY"),
-                getPermission("APPROVE_STOCK_ADJUSTMENT")
-        ));
-    }
-
-    private Set<Permission> getBranchManagerPermissions() {
-        return new HashSet<>(Arrays.asList(
-                getPermission("VIEW_USERS"),
-                getPermission("CREATE_USER"),
-                getPermission("VIEW_BRANCHES"),
-                getPermission("CREATE_PRODUCT"),
-                getPermission("VIEW_PRODUCTS"),
-                getPermission("CREATE_STOCK"),
-                getPermission("ADJUST_STOCK"),
-                getPermission("VIEW_STOCK"),
-                getPermission("APPROVE_STOCK_ENTRY"),
-                getPermission("APPROVE_STOCK_ADJUSTMENT")
-        ));
-    }
-
-    private Set<Permission> getShiftSupervisorPermissions() {
-        return new HashSet<>(Arrays.asList(
-                getPermission("VIEW_PRODUCTS"),
-                getPermission("CREATE_STOCK"),
-                getPermission("VIEW_STOCK"),
-                getPermission("ADJUST_STOCK")
-        ));
+        long start = System.nanoTime();
+        Map<String, Permission> permissions = permissionService.initializePermissions();
+        Map<String, Role> existing = roleRepository.findAllWithPermissions().stream()
+                .collect(Collectors.toMap(Role::getName, Function.identity()));
+
+        List<Role> changed = new ArrayList<>();
+        for (BuiltInRole builtIn : BUILT_IN_ROLES) {
+            Set<Permission> granted = builtIn.permissions() == null
+                    ? new HashSet<>(permissions.values())
+                    : builtIn.permissions().stream().map(name -> getPermission(permissions, name)).collect(Collectors.toSet());
+            Role role = existing.get(builtIn.name());
+            if (role == null) {
+                changed.add(new Role(null, builtIn.name(), builtIn.displayName(),
+                        builtIn.revokable(), builtIn.resignable(), granted));
+            } else if (!permissionNames(role.getPermissions()).equals(permissionNames(granted))) {
+                role.setPermissions(granted);
+                changed.add(role);
+            }
+        }
+        roleRepository.saveAll(changed);
+        log.info("Seeded {} permissions and {} roles ({} written) in {} ms", permissions.size(),
+                BUILT_IN_ROLES.size(), changed.size(), (System.nanoTime() - start) / 1_000_000);
     }
 
-    private Set<Permission> getShiftAttendantPermissions() {
-        return new HashSet<>(Arrays.asList(
-                getPermission("VIEW_PRODUCTS"),
-                getPermission("VIEW_STOCK")
-        ));
+    private static Permission getPermission(Map<String, Permission> permissions, String name) {
+        Permission permission = permissions.get(name);
+        if (permission == null) {
+            throw new RuntimeException("Permission not found: " + name);
+        }
+        return permission;
     }
 
-    private Permission getPermission(String name) {
-        return permissionService.getAllPermissions().stream()
-                .filter(p -> p.getName().equals(name))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Permission not found: " + name));
+    private static Set<String> permissionNames(Set<Permission> permissions) {
+        return permissions.stream().map(Permission::getName).collect(Collectors.toSet());
     }
 
+    // Shared by every user; edit a copy from findByName rather than a role from this list
+    @Cacheable(CacheConfig.ROLES)
     public List<Role> getAllRoles() {
-        return roleRepository.findAll();
+        return roleRepository.findAllWithPermissions();
     }
 
     public Optional<Role> findByName(String name) {
         return roleRepository.findByName(name);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ROLES, allEntries = true)
     public Role save(Role role) {
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        // Permissions may have changed for every user holding this role
+        principalCache.evictRole(saved.getId());
+        return saved;
     }
 }
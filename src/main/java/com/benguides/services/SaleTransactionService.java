@@ -1,26 +1,37 @@
 package com.benguides.services;
 
+import com.benguides.dtos.SaleContributionDTO;
 import com.benguides.dtos.SaleTransactionDTO;
+import com.benguides.dtos.SalesAnalyticsSnapshot;
+import com.benguides.events.SalesChangedEvent;
 import com.benguides.models.Branch;
 import com.benguides.models.Company;
 import com.benguides.models.Product;
 import com.benguides.models.SaleTransaction;
 import com.benguides.repositories.BranchRepository;
+import com.benguides.repositories.DailySalesRollupRepository;
 import com.benguides.repositories.ProductRepository;
 import com.benguides.repositories.SaleTransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -29,25 +40,86 @@ public class SaleTransactionService {
     private final SaleTransactionRepository saleTransactionRepository;
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
+    private final DailySalesRollupRepository rollupRepository;
+    private final DailySalesRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public SaleTransaction save(SaleTransaction saleTransaction) {
-        return saleTransactionRepository.save(saleTransaction);
+        return saveShiftReadings(List.of(saleTransaction)).get(0);
     }
 
+    // Persists a whole shift (every product of a branch) atomically; with block-reserved ids the
+    // inserts go out as JDBC batches and the rollup is updated once per bucket.
+    @Transactional
+    public List<SaleTransaction> saveShiftReadings(List<SaleTransaction> readings) {
+        // Back out the persisted values first; an edit may move a row to another date, shift or branch
+        List<SaleContributionDTO> previous = readings.stream()
+                .filter(reading -> reading.getId() != null)
+                .flatMap(reading -> saleTransactionRepository.findContributionById(reading.getId()).stream())
+                .toList();
+        // Flush so the entity callbacks have computed quantity, totals and cost of sales
+        List<SaleTransaction> saved = saleTransactionRepository.saveAllAndFlush(readings);
+        List<SaleContributionDTO> current = saved.stream().map(SaleContributionDTO::of).toList();
+        rollupService.applyAll(previous, current);
+        publishChanges(previous, current);
+        return saved;
+    }
+
+    // One event per company, delivered to open dashboards once the transaction commits (CompanyEventBus)
+    private void publishChanges(List<SaleContributionDTO> removed, List<SaleContributionDTO> added) {
+        Stream.concat(removed.stream(), added.stream())
+                .map(SaleContributionDTO::companyId)
+                .distinct()
+                .forEach(companyId -> eventPublisher.publishEvent(new SalesChangedEvent(companyId,
+                        removed.stream().filter(c -> companyId.equals(c.companyId())).toList(),
+                        added.stream().filter(c -> companyId.equals(c.companyId())).toList())));
+    }
+
+    @Transactional(readOnly = true)
     public List<SaleTransactionDTO> getAllByCompany(Long companyId) {
         return saleTransactionRepository.findByCompanyId(companyId);
     }
 
+    @Transactional(readOnly = true)
     public Page<SaleTransactionDTO> getAllByCompanyPaged(Long companyId, LocalDate startDate, LocalDate endDate, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return saleTransactionRepository.findByCompanyIdAndDateRangePaged(companyId, startDate, endDate, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public List<SaleTransactionDTO> getAllByCompany(Long companyId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return saleTransactionRepository.findByCompanyIdAndDateRange(companyId, startDate, endDate, pageable);
+    }
+
+    // Newest-first page following the (afterDate, afterId) key; null key for the first page
+    @Transactional(readOnly = true)
+    public List<SaleTransactionDTO> getPageAfter(Long companyId, LocalDate startDate, LocalDate endDate,
+                                                 LocalDate afterDate, Long afterId, int limit) {
+        if (afterDate == null || afterId == null) {
+            return saleTransactionRepository.findLatestByCompanyIdAndDateRange(companyId, startDate, endDate, Limit.of(limit));
+        }
+        return saleTransactionRepository.findByCompanyIdAndDateRangeAfter(companyId, startDate, endDate, afterDate, afterId, Limit.of(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countByCompany(Long companyId, LocalDate startDate, LocalDate endDate) {
+        return saleTransactionRepository.countByCompanyIdAndDateRange(companyId, startDate, endDate);
+    }
+
+    // Pass ScrollPosition.keyset() for the first window, then the position of the last row
+    @Transactional(readOnly = true)
+    public Window<SaleTransactionDTO> scrollByCompany(Long companyId, LocalDate startDate, LocalDate endDate,
+                                                      KeysetScrollPosition position, int limit) {
+        return saleTransactionRepository.scrollByCompanyIdAndDateRange(companyId, startDate, endDate, position, limit);
+    }
+
+    @Transactional(readOnly = true)
     public List<SaleTransactionDTO> getDailySales(Long companyId, LocalDate date) {
         return saleTransactionRepository.findByCompanyAndDate(companyId, date);
     }
 
+    @Transactional(readOnly = true)
     public List<SaleTransactionDTO> getDailySalesByBranch(Long branchId, LocalDate date) {
         return saleTransactionRepository.findByBranchAndDate(branchId, date);
     }
@@ -58,53 +130,120 @@ public class SaleTransactionService {
 
     @Transactional
     public void delete(Long id) {
-        saleTransactionRepository.deleteById(id);
+        saleTransactionRepository.findContributionById(id).ifPresent(contribution -> {
+            rollupService.subtract(contribution);
+            saleTransactionRepository.deleteById(id);
+            publishChanges(List.of(contribution), List.of());
+        });
     }
 
-    // Analytics methods
+    // Analytics methods, served from the daily rollup rather than sale_transactions
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getSalesPerBranch(Long companyId) {
-        return toMap(saleTransactionRepository.getSalesPerBranch(companyId));
+        return toMap(rollupRepository.getSalesPerBranch(companyId));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getSalesPerBranchBetween(Long companyId, LocalDate start, LocalDate end) {
-        return toMap(saleTransactionRepository.getSalesPerBranchBetween(companyId, start, end));
+        return toMap(rollupRepository.getSalesPerBranchBetween(companyId, start, end));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getSalesPerProductBetween(Long companyId, LocalDate start, LocalDate end) {
-        return toMap(saleTransactionRepository.getSalesPerProductBetween(companyId, start, end));
+        return toMap(rollupRepository.getSalesPerProductBetween(companyId, start, end));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getDailySalesPerProduct(Long companyId, LocalDate date) {
-        return toMap(saleTransactionRepository.getDailySalesPerProduct(companyId, date));
+        return toMap(rollupRepository.getDailySalesPerProduct(companyId, date));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getDailySalesPerBranch(Long companyId, LocalDate date) {
-        return toMap(saleTransactionRepository.getDailySalesPerBranch(companyId, date));
+        return toMap(rollupRepository.getDailySalesPerBranch(companyId, date));
     }
 
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal[]> getSalesPerProduct(Long companyId) {
-        return toMap(saleTransactionRepository.getSalesPerProduct(companyId));
+        return toMap(rollupRepository.getSalesPerProduct(companyId));
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal[] getDailyCompanySalesSummary(Long companyId, LocalDate date) {
-        return toBigDecimalArray(saleTransactionRepository.getDailyCompanySalesSummary(companyId, date));
+        return toBigDecimalArray(rollupRepository.getDailyCompanySalesSummary(companyId, date));
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal[] getCompanyTotalSalesSummary(Long companyId) {
-        return toBigDecimalArray(saleTransactionRepository.getCompanyTotalSalesSummary(companyId));
+        return toBigDecimalArray(rollupRepository.getCompanyTotalSalesSummary(companyId));
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal[] getMonthToDateCompanySalesSummary(Long companyId) {
         LocalDate now = LocalDate.now();
         LocalDate start = now.withDayOfMonth(1);
-        return toBigDecimalArray(saleTransactionRepository.getSalesSummaryBetween(companyId, start, now));
+        return toBigDecimalArray(rollupRepository.getSalesSummaryBetween(companyId, start, now));
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal[] getSalesSummaryBetween(Long companyId, LocalDate start, LocalDate end) {
-        return toBigDecimalArray(saleTransactionRepository.getSalesSummaryBetween(companyId, start, end));
+        return toBigDecimalArray(rollupRepository.getSalesSummaryBetween(companyId, start, end));
+    }
+
+    // All branch, product and company totals for a period in one round trip
+    @Transactional(readOnly = true)
+    public SalesAnalyticsSnapshot getSalesAnalyticsSnapshot(Long companyId, LocalDate start, LocalDate end) {
+        return toSnapshot(start, end, rollupRepository.getBranchProductTotalsBetween(companyId, start, end));
+    }
+
+    @Transactional(readOnly = true)
+    public SalesAnalyticsSnapshot getSalesAnalyticsSnapshot(Long companyId) {
+        return toSnapshot(null, null, rollupRepository.getBranchProductTotals(companyId));
+    }
+
+    // Folds branch x product rows into per-branch, per-product and company totals
+    private SalesAnalyticsSnapshot toSnapshot(LocalDate start, LocalDate end, List<Object[]> rows) {
+        Map<Long, SalesAnalyticsSnapshot.Aggregate> branches = new LinkedHashMap<>();
+        Map<Long, SalesAnalyticsSnapshot.Aggregate> products = new LinkedHashMap<>();
+        SalesAnalyticsSnapshot.Aggregate total = emptyAggregate(null, "Total");
+
+        for (Object[] row : rows) {
+            Long branchId = (Long) row[0];
+            Long productId = (Long) row[2];
+            BigDecimal revenue = orZero((BigDecimal) row[4]);
+            BigDecimal cost = orZero((BigDecimal) row[5]);
+            BigDecimal quantity = orZero((BigDecimal) row[6]);
+
+            branches.merge(branchId, new SalesAnalyticsSnapshot.Aggregate(branchId, (String) row[1], revenue, cost, quantity), this::sum);
+            products.merge(productId, new SalesAnalyticsSnapshot.Aggregate(productId, (String) row[3], revenue, cost, quantity), this::sum);
+            total = sum(total, new SalesAnalyticsSnapshot.Aggregate(null, null, revenue, cost, quantity));
+        }
+
+        Comparator<SalesAnalyticsSnapshot.Aggregate> byName = Comparator.comparing(SalesAnalyticsSnapshot.Aggregate::name);
+        return new SalesAnalyticsSnapshot(start, end,
+                branches.values().stream().sorted(byName).toList(),
+                products.values().stream().sorted(byName).toList(),
+                total);
+    }
+
+    private SalesAnalyticsSnapshot.Aggregate sum(SalesAnalyticsSnapshot.Aggregate a, SalesAnalyticsSnapshot.Aggregate b) {
+        return new SalesAnalyticsSnapshot.Aggregate(a.id(), a.name(),
+                a.revenue().add(b.revenue()), a.cost().add(b.cost()), a.quantity().add(b.quantity()));
+    }
+
+    private SalesAnalyticsSnapshot.Aggregate emptyAggregate(Long id, String name) {
+        return new SalesAnalyticsSnapshot.Aggregate(id, name, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 
     private BigDecimal[] toBigDecimalArray(Object[] result) {
+        // Spring Data wraps a single multi-column row in an outer array
+        if (result != null && result.length == 1 && result[0] instanceof Object[] row) {
+            result = row;
+        }
         if (result == null || result.length < 3 || result[0] == null) {
             return new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
         }
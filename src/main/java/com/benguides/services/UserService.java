@@ -3,6 +3,7 @@ package com.benguides.services;
 import com.benguides.dtos.UserDTO;
 import com.benguides.models.*;
 import com.benguides.repositories.UserRepository;
+import com.benguides.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleService roleService;
+    private final PrincipalCache principalCache;
 
     public User createUser(@Valid User user, Set<Role> roles, Company company, Branch branch) {
         validateUserUniqueness(user.getUsername(), user.getEmail());
@@ -98,7 +100,10 @@ public class UserService {
     }
 
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Roles, branch or status may have changed; the user's sessions reload them on next check
+        principalCache.evictUser(saved.getId());
+        return saved;
     }
 
     public void updateLastLogin(String username) {
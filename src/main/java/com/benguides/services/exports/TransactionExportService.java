@@ -0,0 +1,85 @@
+package com.benguides.services.exports;
+
+import com.benguides.dtos.ExpenseTransactionDTO;
+import com.benguides.dtos.SaleTransactionDTO;
+import com.benguides.repositories.ExpenseTransactionRepository;
+import com.benguides.repositories.SaleTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+// Writes sales and expenses for a date range as CSV straight to an output stream.
+// Rows are streamed from the database and written one at a time, so heap use does not grow with the export.
+// Headers match the import columns, so an export can be imported into another company.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final CSVFormat SALE_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader("Date", "Shift", "Branch", "Product", "Litres Opening", "Litres Closing",
+                    "Cash Opening", "Cash Closing", "Quantity", "Unit Price", "Total Amount",
+                    "Buying Price", "Cost Of Sales")
+            .get();
+    private static final CSVFormat EXPENSE_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader("Date", "Expense Type", "Branch", "Amount", "Comment")
+            .get();
+
+    private final SaleTransactionRepository saleTransactionRepository;
+    private final ExpenseTransactionRepository expenseTransactionRepository;
+
+    @Transactional(readOnly = true)
+    public long exportSales(Long companyId, LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (Stream<SaleTransactionDTO> rows = saleTransactionRepository.streamByCompanyIdAndDateRange(companyId, startDate, endDate)) {
+            return write(out, SALE_FORMAT, rows, (printer, s) -> printer.printRecord(
+                    s.transactionDate(), s.shiftSession(), s.branchName(), s.productName(),
+                    s.litresOpeningReading(), s.litresClosingReading(),
+                    s.cashOpeningReading(), s.cashClosingReading(),
+                    s.quantity(), s.unitPrice(), s.totalAmount(),
+                    s.buyingPrice(), s.costOfSales()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportExpenses(Long companyId, LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (Stream<ExpenseTransactionDTO> rows = expenseTransactionRepository.streamByCompanyIdAndDateRange(companyId, startDate, endDate)) {
+            return write(out, EXPENSE_FORMAT, rows, (printer, e) -> printer.printRecord(
+                    e.transactionDate(), e.expenseTypeName(), e.branchName(), e.amount(), e.comment()));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(CSVPrinter printer, T row) throws IOException;
+    }
+
+    private <T> long write(OutputStream out, CSVFormat format, Stream<T> rows, RowWriter<T> rowWriter) {
+        long count = 0;
+        // The printer is flushed but not closed; the caller owns the output stream
+        try {
+            CSVPrinter printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), format);
+            for (T row : (Iterable<T>) rows::iterator) {
+                rowWriter.write(printer, row);
+                count++;
+            }
+            printer.flush();
+        } catch (IOException e) {
+            // Usually the browser cancelled the download
+            throw new UncheckedIOException("Export aborted after " + count + " rows", e);
+        }
+        log.debug("Exported {} rows", count);
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package com.benguides.services.imports;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+class CsvRowReader implements ImportRowReader {
+
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> records;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    CsvRowReader(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        // Spreadsheet exports often start with a byte order mark
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        parser = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .get()
+                .parse(reader);
+        parser.getHeaderMap().forEach((name, index) -> columns.put(ImportRow.normalise(name), index));
+        records = parser.iterator();
+    }
+
+    @Override
+    public Set<String> columns() {
+        return columns.keySet();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return records.hasNext();
+    }
+
+    @Override
+    public ImportRow next() {
+        CSVRecord record = records.next();
+        // The header is line 1
+        return new ImportRow(record.getRecordNumber() + 1, columns, record.toList());
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
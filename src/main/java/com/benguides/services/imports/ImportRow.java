@@ -0,0 +1,22 @@
+package com.benguides.services.imports;
+
+import java.util.List;
+import java.util.Map;
+
+// One data row of an import file; values are looked up by normalised header name
+public record ImportRow(long number, Map<String, Integer> columns, List<String> values) {
+
+    public String get(String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // "Litres Opening", "litres_opening" and "LitresOpening" all map to "litresopening"
+    static String normalise(String header) {
+        return header == null ? "" : header.replaceAll("[\\s_\\-]", "").toLowerCase();
+    }
+}
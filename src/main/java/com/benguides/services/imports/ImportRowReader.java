@@ -0,0 +1,21 @@
+package com.benguides.services.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+
+// Streams the rows of an uploaded file one at a time, so memory does not grow with the file
+public interface ImportRowReader extends Iterator<ImportRow>, Closeable {
+
+    // Normalised header names of the first row
+    Set<String> columns();
+
+    static ImportRowReader open(String fileName, InputStream in) throws IOException {
+        if (fileName != null && fileName.toLowerCase().endsWith(".xlsx")) {
+            return new XlsxRowReader(in);
+        }
+        return new CsvRowReader(in);
+    }
+}
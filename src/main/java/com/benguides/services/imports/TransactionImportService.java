@@ -0,0 +1,237 @@
+package com.benguides.services.imports;
+
+import com.benguides.dtos.ImportResult;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseTransaction;
+import com.benguides.models.ExpenseType;
+import com.benguides.models.Product;
+import com.benguides.models.SaleTransaction;
+import com.benguides.repositories.BranchRepository;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.repositories.ExpenseTypeRepository;
+import com.benguides.repositories.ProductRepository;
+import com.benguides.services.ExpenseTransactionService;
+import com.benguides.services.SaleTransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Streams historical sales and expenses from CSV/XLSX files into a company, one chunk per transaction.
+// Bad rows are reported and skipped; the rest of the file is still imported. Super-admin only, so created on first use.
+@Slf4j
+@Lazy
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+
+    // Required header columns; headers are matched ignoring case, spaces and underscores.
+    // Expense files may also carry optional "branch" and "comment" columns.
+    public static final List<String> SALE_COLUMNS = List.of("date", "shift", "branch", "product",
+            "litresopening", "litresclosing", "cashopening", "cashclosing", "buyingprice");
+    public static final List<String> EXPENSE_COLUMNS = List.of("date", "expensetype", "amount");
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final CompanyRepository companyRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final ExpenseTypeRepository expenseTypeRepository;
+    private final SaleTransactionService saleTransactionService;
+    private final ExpenseTransactionService expenseTransactionService;
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsRead, long rowsImported, long errorCount);
+    }
+
+    public ImportResult importSales(Long companyId, String fileName, InputStream in, ProgressListener listener) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found"));
+        Map<String, Branch> branches = byName(branchRepository.findByCompanyId(companyId), Branch::getName);
+        Map<String, Product> products = byName(productRepository.findAllByCompanyId(companyId), Product::getName);
+
+        return run(fileName, in, SALE_COLUMNS, listener, row -> {
+            SaleTransaction reading = saleTransactionService.createNew(company,
+                    lookup(branches, row.get("branch"), "branch"),
+                    lookup(products, row.get("product"), "product"),
+                    shift(row.get("shift")),
+                    date(row.get("date")));
+            reading.setLitresOpeningReading(amount(row, "litresopening"));
+            reading.setLitresClosingReading(amount(row, "litresclosing"));
+            reading.setCashOpeningReading(amount(row, "cashopening"));
+            reading.setCashClosingReading(amount(row, "cashclosing"));
+            reading.setBuyingPrice(amount(row, "buyingprice"));
+            List<String> problems = reading.getReadingProblems();
+            if (!problems.isEmpty()) {
+                throw new IllegalArgumentException(String.join("; ", problems));
+            }
+            return reading;
+        }, saleTransactionService::saveShiftReadings);
+    }
+
+    public ImportResult importExpenses(Long companyId, String fileName, InputStream in, ProgressListener listener) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("Company not found"));
+        Map<String, Branch> branches = byName(branchRepository.findByCompanyId(companyId), Branch::getName);
+        Map<String, ExpenseType> types = byName(expenseTypeRepository.findAllByCompanyId(companyId), ExpenseType::getName);
+
+        return run(fileName, in, EXPENSE_COLUMNS, listener, row -> {
+            // Branch is optional for company-wide expenses
+            String branchName = row.get("branch");
+            ExpenseTransaction expense = expenseTransactionService.createNew(company,
+                    branchName != null ? lookup(branches, branchName, "branch") : null,
+                    lookup(types, row.get("expensetype"), "expense type"),
+                    date(row.get("date")));
+            BigDecimal amount = amount(row, "amount");
+            if (amount.signum() < 0) {
+                throw new IllegalArgumentException("Amount cannot be negative");
+            }
+            expense.setAmount(amount);
+            expense.setComment(row.get("comment"));
+            return expense;
+        }, expenseTransactionService::saveAll);
+    }
+
+    private <T> ImportResult run(String fileName, InputStream in, List<String> requiredColumns, ProgressListener listener,
+                                 Function<ImportRow, T> parser, Consumer<List<T>> writer) {
+        Progress progress = new Progress();
+        try (ImportRowReader reader = ImportRowReader.open(fileName, in)) {
+            List<String> missing = requiredColumns.stream()
+                    .filter(column -> !reader.columns().contains(column))
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new RuntimeException("Missing columns: " + String.join(", ", missing));
+            }
+
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<ImportRow> chunkRows = new ArrayList<>(CHUNK_SIZE);
+            while (reader.hasNext()) {
+                ImportRow row = reader.next();
+                progress.rowsRead++;
+                try {
+                    chunk.add(parser.apply(row));
+                    chunkRows.add(row);
+                } catch (RuntimeException e) {
+                    progress.reject(row.number(), e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    write(chunk, chunkRows, parser, writer, progress);
+                    listener.onProgress(progress.rowsRead, progress.rowsImported, progress.errorCount);
+                }
+            }
+            write(chunk, chunkRows, parser, writer, progress);
+            listener.onProgress(progress.rowsRead, progress.rowsImported, progress.errorCount);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + fileName + ": " + e.getMessage(), e);
+        }
+        log.info("Imported {} of {} rows from {} ({} rejected)", progress.rowsImported, progress.rowsRead, fileName, progress.errorCount);
+        return new ImportResult(progress.rowsRead, progress.rowsImported, progress.errorCount, progress.errors);
+    }
+
+    // Writes a chunk in one transaction; if it fails, retries row by row so only the bad rows are rejected.
+    // Rows are parsed again for the retry because the failed attempt has already assigned ids.
+    private <T> void write(List<T> chunk, List<ImportRow> chunkRows, Function<ImportRow, T> parser,
+                           Consumer<List<T>> writer, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            writer.accept(chunk);
+            progress.rowsImported += chunk.size();
+        } catch (RuntimeException chunkFailure) {
+            for (ImportRow row : chunkRows) {
+                try {
+                    writer.accept(List.of(parser.apply(row)));
+                    progress.rowsImported++;
+                } catch (RuntimeException e) {
+                    progress.reject(row.number(), e.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private static <T> Map<String, T> byName(Collection<T> items, Function<T, String> name) {
+        return items.stream().collect(Collectors.toMap(item -> key(name.apply(item)), Function.identity(), (a, b) -> a));
+    }
+
+    private static <T> T lookup(Map<String, T> items, String name, String label) {
+        if (name == null) {
+            throw new IllegalArgumentException("Missing " + label);
+        }
+        T item = items.get(key(name));
+        if (item == null) {
+            throw new IllegalArgumentException("Unknown " + label + " '" + name + "'");
+        }
+        return item;
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+
+    private static LocalDate date(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing date");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "', expected yyyy-MM-dd");
+        }
+    }
+
+    private static SaleTransaction.ShiftSession shift(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing shift");
+        }
+        try {
+            return SaleTransaction.ShiftSession.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid shift '" + value + "', expected DAY or NIGHT");
+        }
+    }
+
+    private static BigDecimal amount(ImportRow row, String column) {
+        String value = row.get(column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        try {
+            return new BigDecimal(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number '" + value + "' in " + column);
+        }
+    }
+
+    private static final class Progress {
+        private long rowsRead;
+        private long rowsImported;
+        private long errorCount;
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+
+        void reject(long rowNumber, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.RowError(rowNumber, message));
+            }
+        }
+    }
+}
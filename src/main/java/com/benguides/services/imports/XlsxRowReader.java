@@ -0,0 +1,102 @@
+package com.benguides.services.imports;
+
+import com.github.pjfanning.xlsx.StreamingReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Reads the first sheet through a streaming reader that keeps only a small window of rows in memory
+class XlsxRowReader implements ImportRowReader {
+
+    private final Workbook workbook;
+    private final Iterator<Row> rows;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final DataFormatter formatter = new DataFormatter();
+    private int width;
+    private Row pending;
+
+    XlsxRowReader(InputStream in) {
+        workbook = StreamingReader.builder()
+                .rowCacheSize(200)
+                .bufferSize(8192)
+                .open(in);
+        rows = workbook.getSheetAt(0).iterator();
+        if (rows.hasNext()) {
+            Row header = rows.next();
+            width = Math.max(header.getLastCellNum(), 0);
+            for (int i = 0; i < width; i++) {
+                Cell cell = header.getCell(i);
+                if (cell != null) {
+                    columns.put(ImportRow.normalise(cell.getStringCellValue()), i);
+                }
+            }
+        }
+        advance();
+    }
+
+    @Override
+    public Set<String> columns() {
+        return columns.keySet();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        Row row = pending;
+        List<String> values = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            values.add(text(row.getCell(i)));
+        }
+        advance();
+        return new ImportRow(row.getRowNum() + 1L, columns, values);
+    }
+
+    // Skips rows with no values, which spreadsheets leave behind after deleted data
+    private void advance() {
+        pending = null;
+        while (rows.hasNext()) {
+            Row row = rows.next();
+            if (row.getPhysicalNumberOfCells() > 0) {
+                pending = row;
+                return;
+            }
+        }
+    }
+
+    private String text(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        if (type == CellType.NUMERIC) {
+            if (DateUtil.isCellDateFormatted(cell)) {
+                return cell.getLocalDateTimeCellValue().toLocalDate().toString();
+            }
+            // Full precision rather than the cell's display format
+            return NumberToTextConverter.toText(cell.getNumericCellValue());
+        }
+        return formatter.formatCellValue(cell);
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+}
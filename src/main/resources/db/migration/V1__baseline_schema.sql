@@ -0,0 +1,167 @@
+-- Schema as previously created by hibernate ddl-auto=update.
+-- Existing databases are baselined at this version and skip it.
+
+create table companies (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    address varchar(255),
+    phone varchar(255),
+    email varchar(255),
+    logo_url varchar(255),
+    subscription_plan varchar(255) not null,
+    is_active bit not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_companies_name unique (name)
+) engine=InnoDB;
+
+create table branches (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    code varchar(255),
+    address varchar(255),
+    phone varchar(255),
+    email varchar(255),
+    is_active bit not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    company_id bigint not null,
+    primary key (id),
+    constraint fk_branches_company foreign key (company_id) references companies (id)
+) engine=InnoDB;
+
+create table permissions (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    description varchar(255) not null,
+    category varchar(255) not null,
+    primary key (id),
+    constraint uk_permissions_name unique (name)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    display_name varchar(255) not null,
+    revokable bit not null,
+    resignable bit not null,
+    primary key (id),
+    constraint uk_roles_name unique (name)
+) engine=InnoDB;
+
+create table role_permissions (
+    role_id bigint not null,
+    permission_id bigint not null,
+    primary key (permission_id, role_id),
+    constraint fk_role_permissions_role foreign key (role_id) references roles (id),
+    constraint fk_role_permissions_permission foreign key (permission_id) references permissions (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    email varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    phone_number varchar(255),
+    status enum ('ACTIVE','DISABLED','LOCKED','PASSWORD_EXPIRED') not null,
+    must_change_password bit not null,
+    deleted bit not null,
+    last_login datetime(6),
+    failed_login_attempts integer not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    created_by varchar(255),
+    updated_by varchar(255),
+    company_id bigint,
+    branch_id bigint,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email),
+    constraint fk_users_company foreign key (company_id) references companies (id),
+    constraint fk_users_branch foreign key (branch_id) references branches (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (role_id, user_id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id),
+    constraint fk_user_roles_role foreign key (role_id) references roles (id)
+) engine=InnoDB;
+
+create table product_categories (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    company_id bigint not null,
+    primary key (id),
+    constraint fk_product_categories_company foreign key (company_id) references companies (id)
+) engine=InnoDB;
+
+create table products (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    unit_of_measurement varchar(255) not null,
+    active bit not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    category_id bigint not null,
+    company_id bigint not null,
+    primary key (id),
+    constraint fk_products_category foreign key (category_id) references product_categories (id),
+    constraint fk_products_company foreign key (company_id) references companies (id)
+) engine=InnoDB;
+
+create table expense_type (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    company_id bigint not null,
+    primary key (id),
+    constraint fk_expense_type_company foreign key (company_id) references companies (id)
+) engine=InnoDB;
+
+create table sale_transactions (
+    id bigint not null auto_increment,
+    transaction_date date not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    litres_opening_reading decimal(12,3),
+    litres_closing_reading decimal(12,3),
+    cash_opening_reading decimal(14,2),
+    cash_closing_reading decimal(14,2),
+    quantity decimal(12,3),
+    unit_price decimal(10,2),
+    total_amount decimal(14,2),
+    buying_price decimal(10,2),
+    cost_of_sales decimal(14,2),
+    shift_session enum ('DAY','NIGHT') not null,
+    company_id bigint not null,
+    branch_id bigint not null,
+    product_id bigint not null,
+    primary key (id),
+    constraint fk_sale_tx_company foreign key (company_id) references companies (id),
+    constraint fk_sale_tx_branch foreign key (branch_id) references branches (id),
+    constraint fk_sale_tx_product foreign key (product_id) references products (id)
+) engine=InnoDB;
+
+create table expense_transaction (
+    id bigint not null auto_increment,
+    transaction_date date not null,
+    comment varchar(255),
+    amount decimal(14,2),
+    created_at datetime(6),
+    updated_at datetime(6),
+    expense_type_id bigint not null,
+    company_id bigint not null,
+    branch_id bigint,
+    primary key (id),
+    constraint fk_expense_tx_expense_type foreign key (expense_type_id) references expense_type (id),
+    constraint fk_expense_tx_company foreign key (company_id) references companies (id),
+    constraint fk_expense_tx_branch foreign key (branch_id) references branches (id)
+) engine=InnoDB;
@@ -0,0 +1,20 @@
+-- Per-day sales totals by branch, product and shift, kept in step with sale_transactions by
+-- DailySalesRollupService and backfilled on startup when empty.
+
+create table daily_sales_rollup (
+    id bigint not null auto_increment,
+    transaction_date date not null,
+    shift_session enum ('DAY','NIGHT') not null,
+    total_amount decimal(16,2) not null,
+    cost_of_sales decimal(16,2) not null,
+    quantity decimal(14,3) not null,
+    transaction_count bigint not null,
+    company_id bigint not null,
+    branch_id bigint not null,
+    product_id bigint not null,
+    primary key (id),
+    constraint uk_daily_sales_rollup_key unique (company_id, branch_id, product_id, transaction_date, shift_session),
+    constraint fk_daily_sales_rollup_company foreign key (company_id) references companies (id),
+    constraint fk_daily_sales_rollup_branch foreign key (branch_id) references branches (id),
+    constraint fk_daily_sales_rollup_product foreign key (product_id) references products (id)
+) engine=InnoDB;
@@ -0,0 +1,17 @@
+-- Every transaction query filters on company and date, then groups by branch/product or
+-- expense type; the branch-level screens filter on branch and date.
+
+create index idx_sale_tx_company_date
+    on sale_transactions (company_id, transaction_date, branch_id, product_id);
+
+create index idx_sale_tx_branch_date
+    on sale_transactions (branch_id, transaction_date);
+
+create index idx_expense_tx_company_date
+    on expense_transaction (company_id, transaction_date, branch_id, expense_type_id);
+
+create index idx_expense_tx_branch_date
+    on expense_transaction (branch_id, transaction_date);
+
+create index idx_daily_sales_rollup_company_date
+    on daily_sales_rollup (company_id, transaction_date);
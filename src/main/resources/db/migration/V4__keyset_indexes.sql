@@ -0,0 +1,7 @@
+-- The records grids seek on (transaction_date, id) within a company, newest first.
+
+create index idx_sale_tx_company_date_id
+    on sale_transactions (company_id, transaction_date, id);
+
+create index idx_expense_tx_company_date_id
+    on expense_transaction (company_id, transaction_date, id);
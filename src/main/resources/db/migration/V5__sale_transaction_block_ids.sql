@@ -0,0 +1,15 @@
+-- sale_transactions ids now come in blocks of 50 (BlockIdGenerator) instead of auto_increment so
+-- Hibernate can batch the inserts. A block is a row of id_blocks, numbered by its auto_increment and
+-- inserted on the writing transaction's own connection; block n hands out ids n * 50 .. n * 50 + 49.
+
+create table id_blocks (
+    block bigint not null auto_increment,
+    table_name varchar(64) not null,
+    primary key (block)
+) engine=InnoDB;
+
+-- Start the counter one block past the current max id
+insert into id_blocks (block, table_name)
+select floor(coalesce(max(id), 0) / 50) + 1, 'sale_transactions' from sale_transactions;
+
+alter table sale_transactions modify id bigint not null;
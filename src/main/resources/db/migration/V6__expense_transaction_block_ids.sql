@@ -0,0 +1,8 @@
+-- expense_transaction ids come from id_blocks as well (see V5), so bulk imports can batch inserts.
+-- The counter is shared, so only move it when the expense ids are further along than the sale ids.
+
+insert into id_blocks (block, table_name)
+select floor(coalesce(max(id), 0) / 50) + 1, 'expense_transaction' from expense_transaction
+having floor(coalesce(max(id), 0) / 50) + 1 > (select max(block) from id_blocks);
+
+alter table expense_transaction modify id bigint not null;
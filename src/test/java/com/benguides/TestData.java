@@ -0,0 +1,124 @@
+package com.benguides;
+
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseTransaction;
+import com.benguides.models.ExpenseType;
+import com.benguides.models.Product;
+import com.benguides.models.ProductCategory;
+import com.benguides.models.Role;
+import com.benguides.models.SaleTransaction;
+import com.benguides.models.User;
+import com.benguides.repositories.BranchRepository;
+import com.benguides.repositories.CompanyRepository;
+import com.benguides.repositories.ExpenseTypeRepository;
+import com.benguides.repositories.ProductCategoryRepository;
+import com.benguides.repositories.ProductRepository;
+import com.benguides.repositories.UserRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+// Reference data for service and repository tests. The test database lives as long as the JVM, so every
+// company gets a unique name and tests only look at their own company.
+@TestComponent
+public class TestData {
+
+    private final CompanyRepository companyRepository;
+    private final BranchRepository branchRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final ProductRepository productRepository;
+    private final ExpenseTypeRepository expenseTypeRepository;
+    private final UserRepository userRepository;
+
+    public TestData(CompanyRepository companyRepository, BranchRepository branchRepository,
+                    ProductCategoryRepository productCategoryRepository, ProductRepository productRepository,
+                    ExpenseTypeRepository expenseTypeRepository, UserRepository userRepository) {
+        this.companyRepository = companyRepository;
+        this.branchRepository = branchRepository;
+        this.productCategoryRepository = productCategoryRepository;
+        this.productRepository = productRepository;
+        this.expenseTypeRepository = expenseTypeRepository;
+        this.userRepository = userRepository;
+    }
+
+    public Company company() {
+        Company company = new Company();
+        company.setName("Company " + UUID.randomUUID());
+        company.setEmail("owner@example.com");
+        return companyRepository.save(company);
+    }
+
+    public Branch branch(Company company, String name) {
+        Branch branch = new Branch();
+        branch.setName(name);
+        branch.setCompany(company);
+        return branchRepository.save(branch);
+    }
+
+    public ProductCategory category(Company company, String name) {
+        ProductCategory category = new ProductCategory();
+        category.setName(name);
+        category.setCompany(company);
+        return productCategoryRepository.save(category);
+    }
+
+    public Product product(Company company, ProductCategory category, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setCompany(company);
+        product.setProductCategory(category);
+        product.setUnitOfMeasurement("Litres");
+        return productRepository.save(product);
+    }
+
+    public ExpenseType expenseType(Company company, String name) {
+        ExpenseType expenseType = new ExpenseType();
+        expenseType.setName(name);
+        expenseType.setCompany(company);
+        return expenseTypeRepository.save(expenseType);
+    }
+
+    // A user of the company, at the given branch or company level when branch is null
+    public User user(Company company, Branch branch, Set<Role> roles) {
+        String name = "user-" + UUID.randomUUID();
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("not-a-hash");
+        user.setCompany(company);
+        user.setBranch(branch);
+        user.setRoles(roles);
+        return userRepository.save(user);
+    }
+
+    // A day shift that sold the given litres at the given price, bought at buyingPrice per litre
+    public static SaleTransaction sale(Company company, Branch branch, Product product, LocalDate date,
+                                       String litres, String price, String buyingPrice) {
+        SaleTransaction sale = new SaleTransaction();
+        sale.setCompany(company);
+        sale.setBranch(branch);
+        sale.setProduct(product);
+        sale.setShiftSession(SaleTransaction.ShiftSession.DAY);
+        sale.setTransactionDate(date);
+        sale.setLitresOpeningReading(BigDecimal.ZERO);
+        sale.setLitresClosingReading(new BigDecimal(litres));
+        sale.setCashOpeningReading(BigDecimal.ZERO);
+        sale.setCashClosingReading(new BigDecimal(litres).multiply(new BigDecimal(price)));
+        sale.setBuyingPrice(new BigDecimal(buyingPrice));
+        return sale;
+    }
+
+    public static ExpenseTransaction expense(Company company, Branch branch, ExpenseType type, LocalDate date, String amount) {
+        ExpenseTransaction expense = new ExpenseTransaction();
+        expense.setCompany(company);
+        expense.setBranch(branch);
+        expense.setExpenseType(type);
+        expense.setTransactionDate(date);
+        expense.setAmount(new BigDecimal(amount));
+        return expense;
+    }
+}
@@ -0,0 +1,42 @@
+package com.benguides.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnalyticsExecutorTest {
+
+    private final AnalyticsExecutor analyticsExecutor = new AnalyticsExecutor(new AnalyticsExecutorProperties(1));
+
+    @AfterEach
+    void shutdown() {
+        analyticsExecutor.shutdown();
+    }
+
+    @Test
+    void failedQueriesCompleteTheirFutureAndReleaseThePermit() throws Exception {
+        CompletableFuture<Object> failed = analyticsExecutor.submit(1L, () -> {
+            throw new IllegalStateException("query failed");
+        });
+        assertInstanceOf(IllegalStateException.class, failureOf(failed));
+
+        CompletableFuture<Object> broken = analyticsExecutor.submit(1L, () -> {
+            throw new StackOverflowError();
+        });
+        assertInstanceOf(StackOverflowError.class, failureOf(broken));
+
+        // One permit per company, so this only runs if both failures gave theirs back
+        assertEquals("next", analyticsExecutor.submit(1L, () -> "next").get(5, TimeUnit.SECONDS));
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        return assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS)).getCause();
+    }
+}
@@ -0,0 +1,145 @@
+package com.benguides.config;
+
+import com.benguides.analytics.AnalyticsExecutor;
+import com.benguides.analytics.AnalyticsExecutorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The primary and the replica are separate databases here, each knowing which one it is, so every read
+// shows where it was routed
+@SpringBootTest(classes = ReplicaRoutingConfig.class, properties = {
+        "spring.datasource.url=" + ReplicaRoutingConfigTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "branchone.datasource.replica.jdbc-url=" + ReplicaRoutingConfigTest.REPLICA_URL,
+        "branchone.datasource.replica.driver-class-name=org.h2.Driver",
+        "branchone.datasource.replica.username=sa",
+        "branchone.datasource.replica.password="
+})
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+        JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+class ReplicaRoutingConfigTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createDatabases() throws SQLException {
+        nameDatabase(PRIMARY_URL, "primary");
+        nameDatabase(REPLICA_URL, "replica");
+    }
+
+    private static void nameDatabase(String url, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists database_role (name varchar(16))");
+            statement.execute("delete from database_role");
+            statement.execute("insert into database_role values ('" + name + "')");
+        }
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", readOnly());
+        assertEquals("primary", readWrite());
+        signIn();
+        assertEquals("replica", readOnly());
+    }
+
+    @Test
+    void aUsersReadsStayOnThePrimaryAfterTheirWrite() {
+        String writer = signIn();
+        readWrite();
+        assertEquals("primary", readOnly());
+
+        signIn();
+        assertEquals("replica", readOnly());
+
+        signIn(writer);
+        assertEquals("primary", readOnly());
+    }
+
+    @Test
+    void readsAfterAnotherUsersChangeCanAskForThePrimary() {
+        signIn();
+        assertEquals("primary", ReadRouting.onPrimary(this::readOnly));
+        assertEquals("replica", readOnly());
+    }
+
+    @Test
+    void analyticsQueriesKeepTheSubmittersRoute() throws Exception {
+        AnalyticsExecutor analyticsExecutor = new AnalyticsExecutor(new AnalyticsExecutorProperties(2));
+        try {
+            signIn();
+            readWrite();
+            assertEquals("primary", analyticsExecutor.submit(1L, this::readOnly).get());
+
+            signIn();
+            assertEquals("replica", analyticsExecutor.submit(1L, this::readOnly).get());
+            assertEquals("primary", ReadRouting.onPrimary(() -> analyticsExecutor.submit(1L, this::readOnly)).get());
+        } finally {
+            analyticsExecutor.shutdown();
+        }
+    }
+
+    private String signIn() {
+        return signIn("user-" + UUID.randomUUID());
+    }
+
+    private String signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+        return user;
+    }
+
+    private String readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> databaseName());
+    }
+
+    private String readWrite() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update("update database_role set name = name");
+            return databaseName();
+        });
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("select name from database_role", String.class);
+    }
+}
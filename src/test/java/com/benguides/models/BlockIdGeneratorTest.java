@@ -0,0 +1,69 @@
+package com.benguides.models;
+
+import com.benguides.TestData;
+import com.benguides.services.DailySalesRollupService;
+import com.benguides.services.SaleTransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A single pooled connection: allocating a block on a second connection would time out here.
+// Flyway needs two, so it migrates through its own connection.
+@DataJpaTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=1000",
+        "spring.flyway.url=${spring.datasource.url}",
+        "spring.flyway.user=${spring.datasource.username}"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, SaleTransactionService.class, DailySalesRollupService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlockIdGeneratorTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private SaleTransactionService saleTransactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allocatesOnTheWritingConnectionPastIdsWrittenWithoutIt() {
+        Company company = testData.company();
+        Branch branch = testData.branch(company, "Main");
+        Product petrol = testData.product(company, testData.category(company, "Fuel"), "Petrol");
+        LocalDate today = LocalDate.now();
+
+        // A row written with an explicit id, as ddl-auto=update databases and bulk loads have
+        long explicitId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from sale_transactions", Long.class) + 1_000;
+        jdbcTemplate.update("insert into sale_transactions (id, transaction_date, created_at, updated_at, shift_session, "
+                        + "company_id, branch_id, product_id) values (?, ?, current_timestamp, current_timestamp, 'NIGHT', ?, ?, ?)",
+                explicitId, today, company.getId(), branch.getId(), petrol.getId());
+
+        List<SaleTransaction> shift = saleTransactionService.saveShiftReadings(List.of(
+                TestData.sale(company, branch, petrol, today, "100", "180", "150"),
+                TestData.sale(company, branch, petrol, today.minusDays(1), "50", "180", "150")));
+
+        long first = shift.get(0).getId();
+        assertTrue(first > explicitId, "id " + first + " does not continue past " + explicitId);
+        assertEquals(first + 1, shift.get(1).getId());
+
+        SaleTransaction next = saleTransactionService.save(TestData.sale(company, branch, petrol, today, "10", "180", "150"));
+        assertEquals(first + 2, next.getId());
+    }
+}
@@ -0,0 +1,79 @@
+package com.benguides.repositories;
+
+import com.benguides.TestData;
+import com.benguides.dtos.ExpenseTransactionDTO;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseTransaction;
+import com.benguides.models.ExpenseType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Company-wide expenses (no branch, e.g. from the bulk import) are counted by the grid, so every grid query
+// has to return them as well
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TestData.class)
+class ExpenseTransactionRepositoryTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ExpenseTransactionRepository expenseTransactionRepository;
+
+    private final LocalDate today = LocalDate.now();
+    private Company company;
+    private ExpenseTransaction companyWide;
+
+    @BeforeEach
+    void createExpenses() {
+        company = testData.company();
+        Branch main = testData.branch(company, "Main");
+        ExpenseType rent = testData.expenseType(company, "Rent");
+        expenseTransactionRepository.save(TestData.expense(company, main, rent, today.minusDays(2), "1500"));
+        companyWide = expenseTransactionRepository.save(TestData.expense(company, null, rent, today.minusDays(1), "9000"));
+        expenseTransactionRepository.save(TestData.expense(company, main, rent, today, "2500"));
+    }
+
+    @Test
+    void gridQueriesReturnEveryCountedExpense() {
+        long count = expenseTransactionRepository.countByCompanyIdAndDateRange(company.getId(), null, null);
+        assertEquals(3, count);
+
+        List<ExpenseTransactionDTO> latest = expenseTransactionRepository.findLatestByCompanyIdAndDateRange(
+                company.getId(), null, null, Limit.of(10));
+        assertEquals(count, latest.size());
+        ExpenseTransactionDTO companyWideRow = latest.get(1);
+        assertEquals(companyWide.getId(), companyWideRow.id());
+        assertNull(companyWideRow.branchName());
+        assertNull(companyWideRow.branchId());
+
+        ExpenseTransactionDTO first = latest.get(0);
+        assertEquals(latest.subList(1, latest.size()), expenseTransactionRepository.findByCompanyIdAndDateRangeAfter(
+                company.getId(), null, null, first.transactionDate(), first.id(), Limit.of(10)));
+
+        for (Sort sort : List.of(Sort.unsorted(), Sort.by("amount"), Sort.by("branch.name"))) {
+            assertEquals(count, expenseTransactionRepository.findByCompanyIdAndDateRange(
+                    company.getId(), null, null, PageRequest.of(0, 10, sort)).size(), sort.toString());
+        }
+        assertEquals(count, expenseTransactionRepository.findByCompanyIdAndDateRangePaged(
+                company.getId(), null, null, PageRequest.of(0, 2)).getTotalElements());
+        assertEquals(count, expenseTransactionRepository.findByCompanyId(company.getId()).size());
+    }
+}
@@ -0,0 +1,150 @@
+package com.benguides.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// EXPLAINs the SQL of every @Query on the transaction repositories against the migrated schema and fails
+// when a transaction table is read with a full scan instead of one of the indexes from V3/V4.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.benguides.repositories.TransactionQueryPlanTest$CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class TransactionQueryPlanTest {
+
+    private static final List<String> TRANSACTION_TABLES =
+            List.of("SALE_TRANSACTIONS", "EXPENSE_TRANSACTION", "DAILY_SALES_ROLLUP");
+
+    @Autowired
+    private SaleTransactionRepository saleTransactionRepository;
+
+    @Autowired
+    private ExpenseTransactionRepository expenseTransactionRepository;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> everyQueryUsesAnIndex() {
+        return Stream.of(
+                queries(SaleTransactionRepository.class, saleTransactionRepository),
+                queries(ExpenseTransactionRepository.class, expenseTransactionRepository),
+                queries(DailySalesRollupRepository.class, dailySalesRollupRepository)
+        ).flatMap(tests -> tests);
+    }
+
+    private Stream<DynamicTest> queries(Class<?> repositoryType, Object repository) {
+        return Arrays.stream(repositoryType.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class) && !method.isAnnotationPresent(Modifying.class))
+                .sorted(Comparator.comparing(Method::getName))
+                .map(method -> DynamicTest.dynamicTest(repositoryType.getSimpleName() + "." + method.getName(),
+                        () -> assertIndexed(method, repository)));
+    }
+
+    private void assertIndexed(Method method, Object repository) throws Exception {
+        List<String> statements = captureStatements(method, repository);
+        assertFalse(statements.isEmpty(), method.getName() + " ran no SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            for (String table : TRANSACTION_TABLES) {
+                assertFalse(plan.contains(table + ".tableScan"),
+                        () -> method.getName() + " scans all of " + table + ":\n" + plan);
+            }
+            assertTrue(TRANSACTION_TABLES.stream().anyMatch(plan::contains),
+                    () -> method.getName() + " does not read a transaction table:\n" + plan);
+        }
+    }
+
+    private List<String> captureStatements(Method method, Object repository) throws Exception {
+        CapturedStatements.STATEMENTS.clear();
+        Object result = method.invoke(repository, arguments(method));
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.forEach(row -> { });
+            }
+        }
+        List<String> statements = new ArrayList<>(CapturedStatements.STATEMENTS);
+        CapturedStatements.STATEMENTS.clear();
+        return statements;
+    }
+
+    // Dates are always set, so the optional date filters take part in the plan
+    private static Object[] arguments(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(type -> {
+                    if (type == Long.class) {
+                        return (Object) 1L;
+                    }
+                    if (type == LocalDate.class) {
+                        return LocalDate.now();
+                    }
+                    if (type == Pageable.class) {
+                        return PageRequest.of(0, 20);
+                    }
+                    if (type == Limit.class) {
+                        return Limit.of(20);
+                    }
+                    if (type.isEnum()) {
+                        return type.getEnumConstants()[0];
+                    }
+                    throw new IllegalStateException("No sample argument for " + type + " in " + method);
+                })
+                .toArray();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class CapturedStatements implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.benguides.security;
+
+import com.benguides.TestData;
+import com.benguides.metrics.QueryCounter;
+import com.benguides.models.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static com.benguides.metrics.QueryCounter.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "server.servlet.session.timeout=1s")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, PrincipalCache.class, PermissionRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PrincipalCacheTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    // A session that times out without a logout leaves nothing behind once the timeout has passed again
+    @Test
+    void principalsUnusedForASessionTimeoutExpire() throws InterruptedException {
+        User user = testData.user(testData.company(), null, Set.of());
+        String username = user.getUsername();
+
+        int load = loadStatements(username);
+        assertTrue(load > 0);
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(500);
+            assertQueryCount(0, () -> principalCache.get(username));
+        }
+
+        Thread.sleep(1500);
+        assertEquals(load, loadStatements(username));
+        assertQueryCount(0, () -> principalCache.get(username));
+    }
+
+    private int loadStatements(String username) {
+        try (QueryCounter.Scope scope = QueryCounter.start()) {
+            assertTrue(principalCache.get(username).isPresent());
+            return scope.count();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.benguides.services;
+
+import com.benguides.TestData;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.Product;
+import com.benguides.models.SaleTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, SaleTransactionService.class, DailySalesRollupService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySalesRollupServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private SaleTransactionService saleTransactionService;
+
+    @Autowired
+    private DailySalesRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Company company;
+    private Branch main;
+    private Branch annex;
+    private Product petrol;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void createCompany() {
+        company = testData.company();
+        main = testData.branch(company, "Main");
+        annex = testData.branch(company, "Annex");
+        petrol = testData.product(company, testData.category(company, "Fuel"), "Petrol");
+    }
+
+    @Test
+    void followsSavesEditsAndDeletes() {
+        SaleTransaction first = saleTransactionService.save(TestData.sale(company, main, petrol, today, "100", "180", "150"));
+        SaleTransaction second = saleTransactionService.save(TestData.sale(company, main, petrol, today, "40", "180", "150"));
+        assertTotals(saleTransactionService.getSalesSummaryBetween(company.getId(), today, today), "25200", "21000", "140");
+
+        // Moves the first sale to another branch and day
+        SaleTransaction edited = saleTransactionService.findById(first.getId()).orElseThrow();
+        edited.setBranch(annex);
+        edited.setTransactionDate(today.minusDays(1));
+        saleTransactionService.save(edited);
+        saleTransactionService.delete(second.getId());
+
+        assertEquals(1, buckets());
+        assertTotals(saleTransactionService.getSalesSummaryBetween(company.getId(), today.minusDays(1), today.minusDays(1)),
+                "18000", "15000", "100");
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void concurrentSalesIntoANewBucketAllCount() throws Exception {
+        int sales = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(sales);
+        try {
+            List<Future<SaleTransaction>> saved = new ArrayList<>();
+            for (int i = 0; i < sales; i++) {
+                saved.add(executor.submit(() -> {
+                    start.await();
+                    return saleTransactionService.save(TestData.sale(company, main, petrol, today, "10", "180", "150"));
+                }));
+            }
+            start.countDown();
+            for (Future<SaleTransaction> sale : saved) {
+                sale.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTotals(saleTransactionService.getSalesSummaryBetween(company.getId(), today, today), "14400", "12000", "80");
+        assertEquals(1, buckets());
+        assertMatchesRebuild();
+    }
+
+    // The incremental updates must leave the same buckets a rebuild from sale_transactions produces
+    private void assertMatchesRebuild() {
+        List<Map<String, Object>> incremental = rollupRows();
+        rollupService.rebuild(company.getId());
+        assertEquals(rollupRows(), incremental);
+    }
+
+    private List<Map<String, Object>> rollupRows() {
+        return jdbcTemplate.queryForList("select branch_id, product_id, transaction_date, shift_session, total_amount, "
+                + "cost_of_sales, quantity, transaction_count from daily_sales_rollup where company_id = ? "
+                + "order by branch_id, product_id, transaction_date, shift_session", company.getId());
+    }
+
+    private long buckets() {
+        return jdbcTemplate.queryForObject("select count(*) from daily_sales_rollup where company_id = ?", Long.class,
+                company.getId());
+    }
+
+    private static void assertTotals(BigDecimal[] totals, String amount, String costOfSales, String quantity) {
+        assertEquals(0, new BigDecimal(amount).compareTo(totals[0]), "total amount " + totals[0]);
+        assertEquals(0, new BigDecimal(costOfSales).compareTo(totals[1]), "cost of sales " + totals[1]);
+        assertEquals(0, new BigDecimal(quantity).compareTo(totals[2]), "quantity " + totals[2]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.benguides.services;
+
+import com.benguides.TestData;
+import com.benguides.config.CacheConfig;
+import com.benguides.dtos.ProductDTO;
+import com.benguides.models.Company;
+import com.benguides.models.ProductCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, CacheConfig.class, ProductService.class, ProductCategoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductCategoryServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCategoryService productCategoryService;
+
+    @Test
+    void renamingACategoryRefreshesCachedProductPages() {
+        Company company = testData.company();
+        ProductCategory fuel = testData.category(company, "Fuel");
+        testData.product(company, fuel, "Petrol");
+        assertEquals(List.of("Fuel"), categoryNames(company));
+
+        fuel.setName("Fuels");
+        productCategoryService.save(fuel);
+
+        assertEquals(List.of("Fuels"), categoryNames(company));
+    }
+
+    private List<String> categoryNames(Company company) {
+        return productService.getProductsByCompany(company.getId(), 0, 10).map(ProductDTO::categoryName).toList();
+    }
+}
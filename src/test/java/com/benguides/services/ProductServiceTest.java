@@ -0,0 +1,88 @@
+package com.benguides.services;
+
+import com.benguides.TestData;
+import com.benguides.config.CacheConfig;
+import com.benguides.dtos.ProductDTO;
+import com.benguides.models.Company;
+import com.benguides.models.Product;
+import com.benguides.models.ProductCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.benguides.metrics.QueryCounter.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, CacheConfig.class, ProductService.class, ProductCategoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCategoryService productCategoryService;
+
+    @Test
+    void pagesAreCutFromTheCompanysProductList() {
+        Company company = testData.company();
+        ProductCategory fuel = testData.category(company, "Fuel");
+        testData.product(company, fuel, "Petrol");
+        testData.product(company, fuel, "Diesel");
+        testData.product(company, fuel, "Kerosene");
+
+        Page<ProductDTO> first = productService.getProductsByCompany(company.getId(), 0, 2);
+        assertEquals(List.of("Petrol", "Diesel"), first.map(ProductDTO::name).toList());
+        assertEquals(3, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+        assertQueryCount(0, () -> assertEquals(List.of("Kerosene"),
+                productService.getProductsByCompany(company.getId(), 1, 2).map(ProductDTO::name).toList()));
+        assertQueryCount(0, () -> assertEquals(0,
+                productService.getProductsByCompany(company.getId(), 5, 2).getNumberOfElements()));
+    }
+
+    @Test
+    void editsEvictOnlyTheirOwnCompany() {
+        Company edited = testData.company();
+        ProductCategory fuel = testData.category(edited, "Fuel");
+        Product petrol = testData.product(edited, fuel, "Petrol");
+        Product diesel = testData.product(edited, fuel, "Diesel");
+        Company other = testData.company();
+        testData.product(other, testData.category(other, "Fuel"), "Petrol");
+        productService.getProductsByCompany(edited.getId(), 0, 10);
+        productService.getProductsByCompany(other.getId(), 0, 10);
+
+        petrol.setName("Super");
+        productService.save(petrol);
+        assertQueryCount(0, () -> productService.getProductsByCompany(other.getId(), 0, 10));
+        assertEquals(List.of("Super", "Diesel"), names(edited));
+
+        fuel.setName("Fuels");
+        productCategoryService.save(fuel);
+        assertQueryCount(0, () -> productService.getProductsByCompany(other.getId(), 0, 10));
+        assertEquals(List.of("Fuels", "Fuels"),
+                productService.getProductsByCompany(edited.getId(), 0, 10).map(ProductDTO::categoryName).toList());
+
+        productService.delete(diesel.getId());
+        assertQueryCount(0, () -> productService.getProductsByCompany(other.getId(), 0, 10));
+        assertEquals(List.of("Super"), names(edited));
+    }
+
+    private List<String> names(Company company) {
+        return productService.getProductsByCompany(company.getId(), 0, 10).map(ProductDTO::name).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.benguides.services;
+
+import com.benguides.TestData;
+import com.benguides.config.CacheConfig;
+import com.benguides.dtos.ProfitAndLossReport;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseType;
+import com.benguides.models.Product;
+import com.benguides.models.ProductCategory;
+import com.benguides.models.SaleTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static com.benguides.metrics.QueryCounter.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, CacheConfig.class, SaleTransactionService.class, DailySalesRollupService.class,
+        ExpenseTransactionService.class, ProfitAndLossService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProfitAndLossServiceTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private SaleTransactionService saleTransactionService;
+
+    @Autowired
+    private ExpenseTransactionService expenseTransactionService;
+
+    @Autowired
+    private ProfitAndLossService profitAndLossService;
+
+    private final YearMonth thisMonth = YearMonth.now();
+    private final YearMonth lastMonth = thisMonth.minusMonths(1);
+    private final LocalDate today = LocalDate.now();
+    private Company company;
+    private Branch main;
+    private Branch annex;
+    private Product petrol;
+    private Product diesel;
+    private ExpenseType rent;
+
+    @BeforeEach
+    void createCompany() {
+        company = testData.company();
+        main = testData.branch(company, "Main");
+        annex = testData.branch(company, "Annex");
+        ProductCategory fuel = testData.category(company, "Fuel");
+        petrol = testData.product(company, fuel, "Petrol");
+        diesel = testData.product(company, fuel, "Diesel");
+        rent = testData.expenseType(company, "Rent");
+    }
+
+    @Test
+    void totalsMatchThePerBranchSalesAndExpenseQueries() {
+        LocalDate start = lastMonth.atDay(1);
+        sell(main, petrol, lastMonth.atDay(3), "120");
+        sell(main, diesel, lastMonth.atDay(20), "80");
+        sell(annex, petrol, today, "45");
+        sell(annex, diesel, today, "60");
+        // Outside the range, so in neither the report nor the queries it is compared with
+        sell(main, petrol, start.minusDays(1), "500");
+        expenseTransactionService.save(TestData.expense(company, main, rent, lastMonth.atDay(5), "7000"));
+        expenseTransactionService.save(TestData.expense(company, main, rent, today, "2500"));
+
+        ProfitAndLossReport report = profitAndLossService.getReport(company.getId(), start, today);
+
+        Map<String, BigDecimal[]> salesPerBranch = saleTransactionService.getSalesPerBranchBetween(company.getId(), start, today);
+        Map<String, BigDecimal[]> expensesPerBranch = expenseTransactionService.getExpensesPerBranchBetween(company.getId(), start, today);
+        assertEquals(2, report.branches().size());
+        for (ProfitAndLossReport.Line branch : report.branches()) {
+            BigDecimal[] sales = salesPerBranch.get(branch.name());
+            BigDecimal[] expenses = expensesPerBranch.get(branch.name());
+            assertAmount(sales[0], branch.revenue());
+            assertAmount(sales[1], branch.costOfSales());
+            assertAmount(expenses != null ? expenses[0] : BigDecimal.ZERO, branch.expenses());
+        }
+
+        Map<String, BigDecimal[]> salesPerProduct = saleTransactionService.getSalesPerProductBetween(company.getId(), start, today);
+        assertEquals(2, report.products().size());
+        for (ProfitAndLossReport.Line product : report.products()) {
+            assertAmount(salesPerProduct.get(product.name())[0], product.revenue());
+            assertAmount(salesPerProduct.get(product.name())[1], product.costOfSales());
+        }
+
+        BigDecimal[] sales = saleTransactionService.getSalesSummaryBetween(company.getId(), start, today);
+        assertAmount(sales[0], report.total().revenue());
+        assertAmount(sales[1], report.total().costOfSales());
+        assertAmount(expenseTransactionService.getExpensesSummaryBetween(company.getId(), start, today)[0],
+                report.total().expenses());
+        assertAmount(new BigDecimal("-350"), report.total().netProfit());
+
+        // Whole months, with last month served from its monthly close, add up the same way
+        assertEquals(report.total().netProfit().stripTrailingZeros(),
+                profitAndLossService.getReport(company.getId(), lastMonth, thisMonth).total().netProfit().stripTrailingZeros());
+    }
+
+    @Test
+    void backdatedEditsReopenTheClosedMonth() {
+        SaleTransaction sale = sell(main, petrol, lastMonth.atDay(10), "100");
+        assertAmount(new BigDecimal("18000"), profitAndLossService.getMonthlyClose(company.getId(), lastMonth).total().revenue());
+        assertQueryCount(0, () -> profitAndLossService.getMonthlyClose(company.getId(), lastMonth));
+
+        // A write to the open month leaves the close cached
+        sell(main, petrol, today, "10");
+        assertQueryCount(0, () -> profitAndLossService.getMonthlyClose(company.getId(), lastMonth));
+
+        SaleTransaction edited = saleTransactionService.findById(sale.getId()).orElseThrow();
+        edited.setLitresClosingReading(new BigDecimal("150"));
+        edited.setCashClosingReading(new BigDecimal("27000"));
+        saleTransactionService.save(edited);
+        assertAmount(new BigDecimal("27000"), profitAndLossService.getMonthlyClose(company.getId(), lastMonth).total().revenue());
+
+        expenseTransactionService.save(TestData.expense(company, annex, rent, lastMonth.atDay(28), "4000"));
+        ProfitAndLossReport.Line close = profitAndLossService.getMonthlyClose(company.getId(), lastMonth).total();
+        assertAmount(new BigDecimal("4000"), close.expenses());
+
+        // Moving the sale further back reopens both months it touches
+        YearMonth twoMonthsAgo = lastMonth.minusMonths(1);
+        assertAmount(BigDecimal.ZERO, profitAndLossService.getMonthlyClose(company.getId(), twoMonthsAgo).total().revenue());
+        edited = saleTransactionService.findById(sale.getId()).orElseThrow();
+        edited.setTransactionDate(twoMonthsAgo.atDay(15));
+        saleTransactionService.save(edited);
+        assertAmount(BigDecimal.ZERO, profitAndLossService.getMonthlyClose(company.getId(), lastMonth).total().revenue());
+        assertAmount(new BigDecimal("27000"), profitAndLossService.getMonthlyClose(company.getId(), twoMonthsAgo).total().revenue());
+    }
+
+    // Sold at 180 per litre, bought at 150
+    private SaleTransaction sell(Branch branch, Product product, LocalDate date, String litres) {
+        return saleTransactionService.save(TestData.sale(company, branch, product, date, litres, "180", "150"));
+    }
+
+    private static void assertAmount(BigDecimal expected, BigDecimal actual) {
+        assertEquals(0, expected.compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,210 @@
+package com.benguides.services;
+
+import com.benguides.TestData;
+import com.benguides.config.CacheConfig;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseTransaction;
+import com.benguides.models.ExpenseType;
+import com.benguides.models.Product;
+import com.benguides.models.ProductCategory;
+import com.benguides.models.Role;
+import com.benguides.models.SaleTransaction;
+import com.benguides.security.PermissionRegistry;
+import com.benguides.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.benguides.metrics.QueryCounter.assertMaxQueryCount;
+import static com.benguides.metrics.QueryCounter.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Statements each service call runs, counted by QueryCountInspector. Every company has several branches,
+// products and transactions, so a lazy load per row (N+1) changes the count. Pages are smaller than the
+// data, so they run their count query too. Cached calls run none.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, CacheConfig.class, ServiceQueryCountTest.PasswordEncoderConfig.class, PrincipalCache.class,
+        PermissionRegistry.class, BranchService.class, CompanyService.class, DailySalesRollupService.class,
+        ExpenseTransactionService.class, ExpenseTypeService.class, PermissionService.class,
+        ProductCategoryService.class, ProductService.class, ProfitAndLossService.class, RoleService.class,
+        SaleTransactionService.class, UserService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServiceQueryCountTest {
+
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired private TestData testData;
+    @Autowired private BranchService branchService;
+    @Autowired private CompanyService companyService;
+    @Autowired private ExpenseTransactionService expenseTransactionService;
+    @Autowired private ExpenseTypeService expenseTypeService;
+    @Autowired private PermissionService permissionService;
+    @Autowired private ProductCategoryService productCategoryService;
+    @Autowired private ProductService productService;
+    @Autowired private ProfitAndLossService profitAndLossService;
+    @Autowired private RoleService roleService;
+    @Autowired private SaleTransactionService saleTransactionService;
+    @Autowired private UserService userService;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate weekAgo = today.minusDays(7);
+    private Company company;
+    private List<Branch> branches;
+    private List<Product> products;
+    private List<ExpenseType> expenseTypes;
+
+    @BeforeEach
+    void createCompany() {
+        company = testData.company();
+        branches = List.of(testData.branch(company, "Main"), testData.branch(company, "Annex"),
+                testData.branch(company, "Highway"));
+        ProductCategory fuel = testData.category(company, "Fuel");
+        ProductCategory lubricants = testData.category(company, "Lubricants");
+        products = List.of(testData.product(company, fuel, "Petrol"), testData.product(company, fuel, "Diesel"),
+                testData.product(company, lubricants, "Engine oil"));
+        expenseTypes = List.of(testData.expenseType(company, "Rent"), testData.expenseType(company, "Power"));
+    }
+
+    @Test
+    void saleTransactionService() {
+        saleTransactionService.saveShiftReadings(shift(today));
+        saleTransactionService.saveShiftReadings(shift(today.minusDays(1)));
+
+        assertQueryCount(2, () -> assertEquals(10,
+                saleTransactionService.getAllByCompanyPaged(company.getId(), weekAgo, today, 0, 10).getNumberOfElements()));
+        assertQueryCount(1, () -> assertEquals(10,
+                saleTransactionService.getPageAfter(company.getId(), weekAgo, today, null, null, 10).size()));
+        assertQueryCount(1, () -> saleTransactionService.getSalesAnalyticsSnapshot(company.getId(), weekAgo, today));
+        assertQueryCount(1, () -> saleTransactionService.getSalesPerBranchBetween(company.getId(), weekAgo, today));
+    }
+
+    // One id block at most, one batched insert, and one rollup upsert per bucket; not a statement per entity
+    // load or per column
+    @Test
+    void saleTransactionServiceSavesAShiftInBatches() {
+        List<SaleTransaction> shift = shift(today);
+        assertMaxQueryCount(2 + shift.size(), () -> saleTransactionService.saveShiftReadings(shift));
+    }
+
+    @Test
+    void expenseTransactionService() {
+        List<ExpenseTransaction> expenses = new ArrayList<>();
+        for (Branch branch : branches) {
+            for (ExpenseType type : expenseTypes) {
+                expenses.add(TestData.expense(company, branch, type, today, "1500"));
+            }
+        }
+        assertMaxQueryCount(2, () -> expenseTransactionService.saveAll(expenses));
+
+        assertQueryCount(2, () -> assertEquals(4,
+                expenseTransactionService.getAllByCompanyPaged(company.getId(), weekAgo, today, 0, 4).getNumberOfElements()));
+        assertQueryCount(1, () -> expenseTransactionService.getExpensesPerTypeBetween(company.getId(), weekAgo, today));
+        assertQueryCount(1, () -> expenseTransactionService.getExpensesPerBranchBetween(company.getId(), weekAgo, today));
+        assertQueryCount(1, () -> expenseTransactionService.getExpensesSummaryBetween(company.getId(), weekAgo, today));
+    }
+
+    @Test
+    void profitAndLossService() {
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        saleTransactionService.saveShiftReadings(shift(lastMonth.atDay(10)));
+        saleTransactionService.saveShiftReadings(shift(today));
+        expenseTransactionService.save(TestData.expense(company, branches.get(0), expenseTypes.get(0), today, "5000"));
+
+        assertQueryCount(1, () -> profitAndLossService.getReport(company.getId(), lastMonth.atDay(1), today));
+        assertQueryCount(1, () -> profitAndLossService.getMonthlyClose(company.getId(), lastMonth));
+        // The closed month comes from its cached close, only the open month is queried
+        assertQueryCount(1, () -> profitAndLossService.getReport(company.getId(), lastMonth, YearMonth.now()));
+    }
+
+    @Test
+    void branchService() {
+        assertQueryCount(3, () -> branchService.getCompanyStats(company.getId()));
+        assertQueryCount(1, () -> assertEquals(3, branchService.getActiveBranchesByCompany(company.getId()).size()));
+        assertQueryCount(0, () -> branchService.getActiveBranchesByCompany(company.getId()));
+    }
+
+    @Test
+    void companyService() {
+        assertQueryCount(1, () -> companyService.getActiveCompanies());
+        assertQueryCount(1, () -> companyService.getCompanyById(company.getId()));
+    }
+
+    // Pages come from the company's cached product list, without a count query
+    @Test
+    void productService() {
+        assertQueryCount(1, () -> assertEquals(2, productService.getProductsByCompany(company.getId(), 0, 2).getNumberOfElements()));
+        assertQueryCount(0, () -> assertEquals(1, productService.getProductsByCompany(company.getId(), 1, 2).getNumberOfElements()));
+    }
+
+    @Test
+    void productCategoryService() {
+        assertQueryCount(2, () -> assertEquals(1,
+                productCategoryService.getCategoriesByCompany(company.getId(), 0, 1).getNumberOfElements()));
+    }
+
+    @Test
+    void expenseTypeService() {
+        assertQueryCount(1, () -> assertEquals(2, expenseTypeService.findByCompanyId(company.getId()).size()));
+        assertQueryCount(1, () -> expenseTypeService.getAllByCompany(company.getId()));
+        assertQueryCount(0, () -> expenseTypeService.getAllByCompany(company.getId()));
+    }
+
+    @Test
+    void roleAndPermissionServices() {
+        roleService.initializeRoles();
+
+        assertQueryCount(1, () -> roleService.getAllRoles());
+        assertQueryCount(0, () -> roleService.getAllRoles());
+        assertQueryCount(1, () -> permissionService.getAllPermissions());
+        assertQueryCount(0, () -> permissionService.getAllPermissions());
+    }
+
+    @Test
+    void userService() {
+        roleService.initializeRoles();
+        Set<Role> roles = Set.copyOf(roleService.getAllRoles().subList(0, 2));
+        testData.user(company, null, roles);
+        for (Branch branch : branches) {
+            testData.user(company, branch, roles);
+        }
+
+        assertQueryCount(1, () -> assertEquals(4, userService.getUsersByCompany(company.getId()).size()));
+        assertQueryCount(1, () -> userService.getAllUsersAsDTOs());
+    }
+
+    // Every product at every branch for one day shift
+    private List<SaleTransaction> shift(LocalDate date) {
+        List<SaleTransaction> readings = new ArrayList<>();
+        for (Branch branch : branches) {
+            for (Product product : products) {
+                readings.add(TestData.sale(company, branch, product, date, "100", "180", "150"));
+            }
+        }
+        return readings;
+    }
+}
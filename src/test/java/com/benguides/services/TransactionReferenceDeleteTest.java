@@ -0,0 +1,144 @@
+package com.benguides.services;
+
+import com.benguides.TestData;
+import com.benguides.config.CacheConfig;
+import com.benguides.dtos.ProfitAndLossReport;
+import com.benguides.models.Branch;
+import com.benguides.models.Company;
+import com.benguides.models.ExpenseType;
+import com.benguides.models.Product;
+import com.benguides.models.ProductCategory;
+import com.benguides.repositories.BranchRepository;
+import com.benguides.repositories.ExpenseTypeRepository;
+import com.benguides.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// On MySQL the partitioned transaction tables have no foreign keys (V7), so deleting a branch, product or
+// expense type that transactions point at is refused by the services instead of the database
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestData.class, CacheConfig.class, ProductService.class, BranchService.class, ExpenseTypeService.class,
+        SaleTransactionService.class, DailySalesRollupService.class, ExpenseTransactionService.class,
+        ProfitAndLossService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionReferenceDeleteTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private ExpenseTypeService expenseTypeService;
+
+    @Autowired
+    private SaleTransactionService saleTransactionService;
+
+    @Autowired
+    private ExpenseTransactionService expenseTransactionService;
+
+    @Autowired
+    private ProfitAndLossService profitAndLossService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private ExpenseTypeRepository expenseTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Company company;
+    private Branch branch;
+    private ProductCategory fuel;
+    private Product petrol;
+    private ExpenseType rent;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void createCompany() {
+        company = testData.company();
+        branch = testData.branch(company, "Main");
+        fuel = testData.category(company, "Fuel");
+        petrol = testData.product(company, fuel, "Petrol");
+        rent = testData.expenseType(company, "Rent");
+    }
+
+    @Test
+    void refusesToDeleteWhatTransactionsReference() {
+        saleTransactionService.save(TestData.sale(company, branch, petrol, today, "100", "180", "150"));
+        expenseTransactionService.save(TestData.expense(company, branch, rent, today, "5000"));
+
+        assertThrows(IllegalStateException.class, () -> productService.delete(petrol.getId()));
+        assertThrows(IllegalStateException.class, () -> expenseTypeService.delete(rent.getId()));
+        assertThrows(IllegalStateException.class, () -> branchService.deleteBranch(branch.getId()));
+
+        assertTrue(productRepository.existsById(petrol.getId()));
+        assertTrue(expenseTypeRepository.existsById(rent.getId()));
+        assertTrue(branchRepository.existsById(branch.getId()));
+    }
+
+    @Test
+    void deletesWhatNoTransactionReferences() {
+        Product diesel = testData.product(company, fuel, "Diesel");
+        ExpenseType repairs = testData.expenseType(company, "Repairs");
+        Branch annex = testData.branch(company, "Annex");
+
+        assertDoesNotThrow(() -> productService.delete(diesel.getId()));
+        assertDoesNotThrow(() -> expenseTypeService.delete(repairs.getId()));
+        assertDoesNotThrow(() -> branchService.deleteBranch(annex.getId()));
+
+        assertFalse(productRepository.existsById(diesel.getId()));
+        assertFalse(expenseTypeRepository.existsById(repairs.getId()));
+        assertFalse(branchRepository.existsById(annex.getId()));
+    }
+
+    // Rows recorded before the guards may still point at a deleted branch or product
+    @Test
+    void reportsRowsWhoseBranchOrProductIsGone() {
+        Branch closed = testData.branch(company, "Closed");
+        Product kerosene = testData.product(company, fuel, "Kerosene");
+        saleTransactionService.save(TestData.sale(company, closed, kerosene, today, "10", "120", "100"));
+        jdbcTemplate.execute("set referential_integrity false");
+        try {
+            jdbcTemplate.update("delete from products where id = ?", kerosene.getId());
+            jdbcTemplate.update("delete from branches where id = ?", closed.getId());
+        } finally {
+            jdbcTemplate.execute("set referential_integrity true");
+        }
+
+        ProfitAndLossReport report = profitAndLossService.getReport(company.getId(), today, today);
+
+        assertEquals(List.of("Deleted branch " + closed.getId()),
+                report.branches().stream().map(ProfitAndLossReport.Line::name).toList());
+        assertEquals(List.of("Deleted product " + kerosene.getId()),
+                report.products().stream().map(ProfitAndLossReport.Line::name).toList());
+    }
+}